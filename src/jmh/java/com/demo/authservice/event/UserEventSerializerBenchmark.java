@@ -0,0 +1,53 @@
+package com.demo.authservice.event;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Binary versus JSON encoding of user events.
+ */
+@State(Scope.Benchmark)
+public class UserEventSerializerBenchmark {
+
+    private BinaryUserEventSerializer binary;
+    private JsonUserEventSerializer json;
+    private UserEvent event;
+    private byte[] binaryBytes;
+    private byte[] jsonBytes;
+
+    @Setup
+    public void setUp() {
+        binary = new BinaryUserEventSerializer();
+        json = new JsonUserEventSerializer(Jackson2ObjectMapperBuilder.json().build());
+        event = new UserEvent(UserEventType.LOGIN, 123456L, "benchmark@gmail.com", Instant.now(),
+                List.of("ROLE_ADMIN", "ROLE_USER"), "10.20.30.40");
+        binaryBytes = binary.serialize(event);
+        jsonBytes = json.serialize(event);
+    }
+
+    @Benchmark
+    public byte[] binarySerialize() {
+        return binary.serialize(event);
+    }
+
+    @Benchmark
+    public UserEvent binaryDeserialize() {
+        return binary.deserialize(binaryBytes);
+    }
+
+    @Benchmark
+    public byte[] jsonSerialize() {
+        return json.serialize(event);
+    }
+
+    @Benchmark
+    public UserEvent jsonDeserialize() {
+        return json.deserialize(jsonBytes);
+    }
+}
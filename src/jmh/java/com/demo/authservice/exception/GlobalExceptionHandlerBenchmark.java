@@ -0,0 +1,48 @@
+package com.demo.authservice.exception;
+
+import com.demo.authservice.observability.Rejections;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+
+import java.util.Map;
+
+/**
+ * Error body construction in {@link GlobalExceptionHandler}.
+ */
+@State(Scope.Benchmark)
+public class GlobalExceptionHandlerBenchmark {
+
+    private GlobalExceptionHandler handler;
+    private InvalidCredentialsException invalidCredentials;
+    private MethodArgumentNotValidException invalidArguments;
+
+    @Setup
+    public void setUp() throws Exception {
+        handler = new GlobalExceptionHandler(new Rejections(new SimpleMeterRegistry()));
+        invalidCredentials = new InvalidCredentialsException("Invalid email or password");
+
+        BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(new Object(), "request");
+        bindingResult.addError(new FieldError("request", "email", "must be a well-formed email address"));
+        bindingResult.addError(new FieldError("request", "password", "must not be blank"));
+        invalidArguments = new MethodArgumentNotValidException(
+                new MethodParameter(Object.class.getMethod("equals", Object.class), 0), bindingResult);
+    }
+
+    @Benchmark
+    public ResponseEntity<Map<String, Object>> invalidCredentials() {
+        return handler.handleInvalidCredentials(invalidCredentials);
+    }
+
+    @Benchmark
+    public ResponseEntity<Map<String, Object>> validationErrors() {
+        return handler.handleValidationExceptions(invalidArguments);
+    }
+}
@@ -0,0 +1,52 @@
+package com.demo.authservice.mapper;
+
+import com.demo.authservice.entity.RoleEntity;
+import com.demo.authservice.entity.UserEntity;
+import com.demo.authservice.model.UserResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Entity to DTO mapping in the MapStruct-generated {@link UserMapper}.
+ */
+@State(Scope.Benchmark)
+public class UserMapperBenchmark {
+
+    private UserMapper userMapper;
+    private UserEntity user;
+
+    @Setup
+    public void setUp() {
+        userMapper = new UserMapperImpl();
+
+        Set<RoleEntity> roles = new HashSet<>();
+        for (int i = 1; i <= 5; i++) {
+            roles.add(RoleEntity.builder().id((long) i).name("ROLE_" + i).build());
+        }
+        user = UserEntity.builder()
+                .id(42L)
+                .username("benchmark")
+                .email("benchmark@gmail.com")
+                .password("unused")
+                .roles(roles)
+                .lastLogin(ZonedDateTime.now(ZoneOffset.UTC))
+                .build();
+    }
+
+    @Benchmark
+    public UserResponse toDto() {
+        return userMapper.toDto(user);
+    }
+
+    @Benchmark
+    public Set<String> mapRoles() {
+        return userMapper.mapRoles(user.getRoles());
+    }
+}
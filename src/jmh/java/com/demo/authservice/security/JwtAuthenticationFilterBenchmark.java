@@ -0,0 +1,68 @@
+package com.demo.authservice.security;
+
+import com.demo.authservice.cache.CoalescingUserLoader;
+import com.demo.authservice.entity.UserEntity;
+import com.demo.authservice.observability.AuthFlightEvents;
+import com.demo.authservice.observability.PhaseTracker;
+import com.demo.authservice.observability.Rejections;
+import com.demo.authservice.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * {@link JwtAuthenticationFilter#doFilterInternal} for an authenticated request,
+ * with the user repository mocked out (the Mockito call is part of the cost).
+ */
+@State(Scope.Thread)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> {
+    };
+
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        JwtService jwtService = JwtServiceBenchmark.newJwtService();
+        UserEntity user = JwtServiceBenchmark.newUser();
+
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
+
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        filter = new JwtAuthenticationFilter(jwtService,
+                new CoalescingUserLoader(userRepository, Duration.ofSeconds(2)),
+                new StaticListableBeanFactory().getBeanProvider(PrincipalStore.class),
+                new PhaseTracker(meterRegistry, new AuthFlightEvents(false)), new Rejections(meterRegistry), false, "");
+
+        request = new MockHttpServletRequest("GET", "/users/me");
+        request.setServletPath("/users/me");
+        request.addHeader("Authorization", "Bearer " + jwtService.generateToken(user));
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public Object authenticatedRequest() throws Exception {
+        filter.doFilterInternal(request, response, NO_OP_CHAIN);
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
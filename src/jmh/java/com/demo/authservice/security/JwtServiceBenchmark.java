@@ -0,0 +1,66 @@
+package com.demo.authservice.security;
+
+import com.demo.authservice.entity.RoleEntity;
+import com.demo.authservice.entity.UserEntity;
+import com.demo.authservice.observability.AuthFlightEvents;
+import com.demo.authservice.observability.PhaseTracker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Set;
+
+/**
+ * Token issuing, parsing and validation in {@link JwtService}.
+ */
+@State(Scope.Benchmark)
+public class JwtServiceBenchmark {
+
+    static final String SECRET = "Benchmark_JWT_Key_Not_For_Production_0123456789";
+
+    private JwtService jwtService;
+    private UserEntity user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = newJwtService();
+        user = newUser();
+        token = jwtService.generateToken(user);
+    }
+
+    static JwtService newJwtService() {
+        JwtService jwtService = new JwtService(new PhaseTracker(new SimpleMeterRegistry(), new AuthFlightEvents(false)));
+        ReflectionTestUtils.setField(jwtService, "secret", SECRET);
+        return jwtService;
+    }
+
+    static UserEntity newUser() {
+        return UserEntity.builder()
+                .id(42L)
+                .username("benchmark")
+                .email("benchmark@gmail.com")
+                .password("unused")
+                .roles(Set.of(RoleEntity.builder().id(1L).name("ROLE_USER").build(),
+                        RoleEntity.builder().id(2L).name("ROLE_ADMIN").build()))
+                .build();
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtService.extractUsername(token);
+    }
+
+    @Benchmark
+    public boolean isTokenValid() {
+        return jwtService.isTokenValid(token, user.getEmail());
+    }
+}
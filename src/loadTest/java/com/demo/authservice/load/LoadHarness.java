@@ -0,0 +1,273 @@
+package com.demo.authservice.load;
+
+import com.demo.authservice.AuthServiceApplication;
+import com.demo.authservice.event.UserEventType;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * End-to-end load harness: boots the service and drives a traffic mix at a target rate.
+ *
+ * <p>The service runs in-process on H2 (profile {@code loadtest}) against an
+ * embedded single-node Kafka broker, with the outbox relay enabled so event
+ * publishing is part of the load. Users are seeded through
+ * {@link LoadTestSeeder}.</p>
+ *
+ * <p>Requests are scheduled with an open model: request {@code i} is due at
+ * {@code start + i / rate} and is issued on its own virtual thread whether or
+ * not earlier requests have completed. Latency is measured from the due time,
+ * so a stalled server shows up as latency instead of silently lowering the
+ * offered rate (coordinated omission).</p>
+ *
+ * <p>Options ({@code key=value} arguments, all optional):</p>
+ * <ul>
+ *   <li>{@code rate} — requests per second (default 200)</li>
+ *   <li>{@code duration} / {@code warmup} — seconds measured / discarded (default 60 / 10)</li>
+ *   <li>{@code users} — seeded users (default 10000)</li>
+ *   <li>{@code mix} — operation weights, e.g. {@code login=10,me=80,assign=5,stats=5}</li>
+ *   <li>{@code report-dir} — where per-endpoint {@code .hgrm} files are written</li>
+ * </ul>
+ *
+ * <p>Run with {@code ./gradlew loadTest -Prate=500 -Pduration=120 -Pmix=login=20,me=80}.</p>
+ */
+public class LoadHarness {
+
+    enum Operation {
+        LOGIN,
+        ME,
+        ASSIGN,
+        STATS
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            options.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+
+        double rate = Double.parseDouble(options.getOrDefault("rate", "200"));
+        Duration duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "60")));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "10")));
+        int users = Integer.parseInt(options.getOrDefault("users", "10000"));
+        Map<Operation, Integer> mix = parseMix(options.getOrDefault("mix", "login=10,me=80,assign=5,stats=5"));
+        Path reportDir = Path.of(options.getOrDefault("report-dir", "build/load-test"));
+
+        String[] topics = Arrays.stream(UserEventType.values()).map(UserEventType::topic).distinct().toArray(String[]::new);
+        EmbeddedKafkaBroker kafka = new EmbeddedKafkaKraftBroker(1, 1, topics);
+        kafka.afterPropertiesSet();
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(AuthServiceApplication.class)
+                .run("--spring.profiles.active=loadtest",
+                        "--spring.kafka.bootstrap-servers=" + kafka.getBrokersAsString(),
+                        "--auth.outbox.relay.enabled=true")) {
+
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/auth";
+            LoadTestSeeder.Seed seed = LoadTestSeeder.seed(context, users);
+            Requests requests = new Requests(baseUrl, seed);
+            HttpClient client = HttpClient.newBuilder()
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+
+            System.out.printf("Warming up for %ds at %.0f req/s...%n", warmup.toSeconds(), rate);
+            drive(client, requests, mix, rate, warmup);
+
+            System.out.printf("Measuring for %ds at %.0f req/s, mix %s, %d users...%n",
+                    duration.toSeconds(), rate, mix, users);
+            long start = System.nanoTime();
+            Map<Operation, Stats> stats = drive(client, requests, mix, rate, duration);
+            double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+            report(stats, elapsedSeconds, rate, reportDir);
+        } finally {
+            kafka.destroy();
+        }
+    }
+
+    // --------------------------
+    //  LOAD GENERATION
+    // --------------------------
+
+    private static Map<Operation, Stats> drive(HttpClient client, Requests requests, Map<Operation, Integer> mix,
+                                               double rate, Duration duration) {
+        Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+        mix.keySet().forEach(operation -> stats.put(operation, new Stats()));
+        Operation[] weighted = mix.entrySet().stream()
+                .flatMap(entry -> Collections.nCopies(entry.getValue(), entry.getKey()).stream())
+                .toArray(Operation[]::new);
+
+        double intervalNanos = 1e9 / rate;
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; ; i++) {
+                long due = start + (long) (i * intervalNanos);
+                if (due >= end) {
+                    break;
+                }
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+
+                Operation operation = weighted[ThreadLocalRandom.current().nextInt(weighted.length)];
+                executor.submit(() -> {
+                    int status;
+                    try {
+                        status = client.send(requests.next(operation), HttpResponse.BodyHandlers.discarding())
+                                .statusCode();
+                    } catch (Exception e) {
+                        status = -1;
+                    }
+                    stats.get(operation).record(System.nanoTime() - due, status);
+                });
+            }
+            executor.shutdown();
+            executor.awaitTermination(5, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return stats;
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String part : mix.split(",")) {
+            String[] weight = part.split("=");
+            int value = Integer.parseInt(weight[1].trim());
+            if (value > 0) {
+                weights.put(Operation.valueOf(weight[0].trim().toUpperCase()), value);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Mix has no operations: " + mix);
+        }
+        return weights;
+    }
+
+    private static final class Requests {
+
+        private final String baseUrl;
+        private final List<LoadTestSeeder.SeededUser> users;
+        private final LoadTestSeeder.SeededUser admin;
+
+        Requests(String baseUrl, LoadTestSeeder.Seed seed) {
+            this.baseUrl = baseUrl;
+            this.users = seed.users();
+            this.admin = seed.admin();
+        }
+
+        HttpRequest next(Operation operation) {
+            LoadTestSeeder.SeededUser user = users.get(ThreadLocalRandom.current().nextInt(users.size()));
+            return switch (operation) {
+                case LOGIN -> json("/users/login", null, "{\"email\":\"" + user.email()
+                        + "\",\"password\":\"" + LoadTestSeeder.PASSWORD + "\"}");
+                case ME -> get("/users/me", user.token());
+                // Re-assigns the role the user already has, so the data set stays stable
+                case ASSIGN -> json("/users/" + user.id() + "/roles", admin.token(), "{\"roleNames\":[\"ROLE_USER\"]}");
+                case STATS -> get("/roles/admin/stats", admin.token());
+            };
+        }
+
+        private HttpRequest get(String path, String token) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header("Authorization", "Bearer " + token)
+                    .timeout(Duration.ofSeconds(30))
+                    .GET()
+                    .build();
+        }
+
+        private HttpRequest json(String path, String token, String body) {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header("Content-Type", "application/json")
+                    .timeout(Duration.ofSeconds(30))
+                    .POST(HttpRequest.BodyPublishers.ofString(body));
+            if (token != null) {
+                builder.header("Authorization", "Bearer " + token);
+            }
+            return builder.build();
+        }
+    }
+
+    // --------------------------
+    //  REPORTING
+    // --------------------------
+
+    private static final class Stats {
+
+        // Microseconds, up to one hour, three significant digits
+        private final Histogram latency = new ConcurrentHistogram(TimeUnit.HOURS.toMicros(1), 3);
+        private final LongAdder errors = new LongAdder();
+
+        void record(long latencyNanos, int status) {
+            latency.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), latency.getHighestTrackableValue()));
+            if (status < 200 || status >= 300) {
+                errors.increment();
+            }
+        }
+    }
+
+    private static void report(Map<Operation, Stats> stats, double elapsedSeconds, double rate, Path reportDir)
+            throws IOException {
+        Files.createDirectories(reportDir);
+
+        System.out.printf("%n%-8s %9s %8s %9s %9s %9s %9s %9s %9s%n",
+                "endpoint", "count", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+
+        long total = 0;
+        long totalErrors = 0;
+        for (Map.Entry<Operation, Stats> entry : stats.entrySet()) {
+            Histogram latency = entry.getValue().latency;
+            long errors = entry.getValue().errors.sum();
+            total += latency.getTotalCount();
+            totalErrors += errors;
+
+            System.out.printf("%-8s %9d %8d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    entry.getKey().name().toLowerCase(), latency.getTotalCount(), errors,
+                    latency.getTotalCount() / elapsedSeconds,
+                    millis(latency, 50.0), millis(latency, 90.0), millis(latency, 99.0), millis(latency, 99.9),
+                    latency.getMaxValue() / 1000.0);
+
+            Path file = reportDir.resolve(entry.getKey().name().toLowerCase() + ".hgrm");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+                latency.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+
+        System.out.printf("%ntarget %.1f req/s, achieved %.1f req/s over %.1fs, %d requests, %d errors%n",
+                rate, total / elapsedSeconds, elapsedSeconds, total, totalErrors);
+        System.out.printf("Percentile distributions (ms) written to %s%n", reportDir.toAbsolutePath());
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+}
@@ -0,0 +1,91 @@
+package com.demo.authservice.load;
+
+import com.demo.authservice.entity.RoleEntity;
+import com.demo.authservice.entity.UserEntity;
+import com.demo.authservice.repository.RoleRepository;
+import com.demo.authservice.security.JwtService;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Seeds users for load runs through plain JDBC batches.
+ *
+ * <p>All users share one BCrypt hash of {@link #PASSWORD}, so seeding does not
+ * spend minutes hashing, and every user gets a pre-issued token.</p>
+ */
+final class LoadTestSeeder {
+
+    static final String PASSWORD = "load-test";
+
+    private static final String USER_DOMAIN = "@loadtest.local";
+    private static final String ADMIN_EMAIL = "admin@loadtest.admin";
+    private static final int BATCH_SIZE = 1000;
+
+    record SeededUser(long id, String email, String token) {
+    }
+
+    record Seed(List<SeededUser> users, SeededUser admin) {
+    }
+
+    private LoadTestSeeder() {
+    }
+
+    static Seed seed(ConfigurableApplicationContext context, int users) {
+        JdbcTemplate jdbc = new JdbcTemplate(context.getBean(DataSource.class));
+        RoleRepository roleRepository = context.getBean(RoleRepository.class);
+        JwtService jwtService = context.getBean(JwtService.class);
+
+        RoleEntity userRole = role(roleRepository, "ROLE_USER");
+        RoleEntity adminRole = role(roleRepository, "ROLE_ADMIN");
+        String hash = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+
+        String insertUser = "INSERT INTO users (username, email, password, created_by, created_date) VALUES (?, ?, ?, 'loadtest', ?)";
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < users; i++) {
+            batch.add(new Object[]{"load" + i, "load" + i + USER_DOMAIN, hash, now});
+            if (batch.size() == BATCH_SIZE || i == users - 1) {
+                jdbc.batchUpdate(insertUser, batch);
+                batch.clear();
+            }
+        }
+        jdbc.update(insertUser, "load-admin", ADMIN_EMAIL, hash, now);
+
+        jdbc.update("INSERT INTO user_roles (user_id, role_id) SELECT id, ? FROM users WHERE email LIKE ?",
+                userRole.getId(), "%" + USER_DOMAIN);
+        jdbc.update("INSERT INTO user_roles (user_id, role_id) SELECT id, ? FROM users WHERE email = ?",
+                adminRole.getId(), ADMIN_EMAIL);
+
+        List<SeededUser> seeded = jdbc.query("SELECT id, email FROM users WHERE email LIKE ? ORDER BY id",
+                (rs, row) -> seededUser(jwtService, rs.getLong(1), rs.getString(2), userRole),
+                "%" + USER_DOMAIN);
+        SeededUser admin = jdbc.queryForObject("SELECT id, email FROM users WHERE email = ?",
+                (rs, row) -> seededUser(jwtService, rs.getLong(1), rs.getString(2), adminRole),
+                ADMIN_EMAIL);
+
+        return new Seed(seeded, admin);
+    }
+
+    private static RoleEntity role(RoleRepository roleRepository, String name) {
+        return roleRepository.findByName(name)
+                .orElseGet(() -> roleRepository.save(RoleEntity.builder().name(name).build()));
+    }
+
+    private static SeededUser seededUser(JwtService jwtService, long id, String email, RoleEntity role) {
+        UserEntity user = UserEntity.builder()
+                .id(id)
+                .username(email.substring(0, email.indexOf('@')))
+                .email(email)
+                .roles(Set.of(role))
+                .build();
+        return new SeededUser(id, email, jwtService.generateToken(user));
+    }
+}
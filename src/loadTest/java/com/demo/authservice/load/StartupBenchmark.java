@@ -0,0 +1,227 @@
+package com.demo.authservice.load;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compares startup of the standard launch with the AOT + CDS launch.
+ *
+ * <p>The boot jar is extracted to the CDS-friendly layout ({@code -Djarmode=tools
+ * extract}), a training run writes the class data archive, and then each mode is
+ * started {@code runs} times as a separate JVM. Time to ready is measured from
+ * process start until {@code /actuator/health} answers {@code 200}; then RSS is
+ * read from {@code /proc} (Linux only) and the heap in use after a full GC from
+ * {@code jcmd}.</p>
+ *
+ * <p>Three launches are compared: the standard launch with the baseline profile,
+ * the standard launch with the profile the jar was AOT-processed for (normally
+ * {@code prod}, which drops springdoc), and the AOT + CDS launch with that same
+ * profile. All of them run against an in-memory H2 database in MySQL mode, with
+ * Flyway migrations. Application output goes to {@code <work-dir>/logs}.</p>
+ *
+ * <p>Run with {@code ./gradlew startupBenchmark -Pruns=5}.</p>
+ */
+public class StartupBenchmark {
+
+    private static final Duration READY_TIMEOUT = Duration.ofMinutes(2);
+
+    public static void main(String[] args) throws Exception {
+        Path bootJar = Path.of(args[0]);
+        Path workDir = Path.of(args[1]);
+        int runs = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        String profile = args.length > 3 ? args[3] : "prod";
+        String baselineProfile = args.length > 4 ? args[4] : "default";
+
+        Path appDir = workDir.resolve("app");
+        Path logDir = Files.createDirectories(workDir.resolve("logs"));
+        Path appJar = appDir.resolve(bootJar.getFileName());
+        Path archive = appDir.resolve("application.jsa");
+
+        exec(logDir.resolve("extract.log"), List.of(java(), "-Djarmode=tools", "-jar", bootJar.toString(),
+                "extract", "--destination", appDir.toString(), "--force"));
+
+        List<String> training = new ArrayList<>(List.of(java(), "-XX:ArchiveClassesAtExit=" + archive,
+                "-Dspring.aot.enabled=true", "-Dspring.context.exit=onRefresh", "-jar", appJar.toString()));
+        training.addAll(appArgs(profile, freePort()));
+        exec(logDir.resolve("training.log"), training);
+
+        List<Launch> launches = List.of(
+                new Launch("standard", baselineProfile, false),
+                new Launch("standard", profile, false),
+                new Launch("aot+cds", profile, true));
+
+        List<Result> results = new ArrayList<>();
+        for (Launch launch : launches) {
+            List<Sample> samples = new ArrayList<>();
+            for (int run = 0; run < runs; run++) {
+                samples.add(start(launch, appJar, archive, logDir.resolve(launch.name() + "-" + run + ".log")));
+            }
+            results.add(Result.of(launch, samples));
+        }
+
+        System.out.printf("%nruns=%d%n", runs);
+        System.out.printf("%-22s %14s %14s %12s %12s%n", "launch", "median ready", "min ready", "median RSS", "median heap");
+        for (Result result : results) {
+            System.out.printf("%-22s %11d ms %11d ms %9s MB %9s MB%n", result.launch().name(),
+                    result.medianReadyMillis(), result.minReadyMillis(), orNa(result.medianRssMb()),
+                    orNa(result.medianHeapMb()));
+        }
+    }
+
+    private record Launch(String mode, String profile, boolean optimized) {
+
+        String name() {
+            return mode + "/" + profile;
+        }
+    }
+
+    private record Sample(long readyMillis, long rssMb, long heapMb) {
+    }
+
+    private record Result(Launch launch, long medianReadyMillis, long minReadyMillis, long medianRssMb,
+                          long medianHeapMb) {
+
+        static Result of(Launch launch, List<Sample> samples) {
+            long[] ready = samples.stream().mapToLong(Sample::readyMillis).sorted().toArray();
+            long[] rss = samples.stream().mapToLong(Sample::rssMb).sorted().toArray();
+            long[] heap = samples.stream().mapToLong(Sample::heapMb).sorted().toArray();
+            return new Result(launch, ready[ready.length / 2], ready[0], rss[rss.length / 2], heap[heap.length / 2]);
+        }
+    }
+
+    private static String orNa(long value) {
+        return value < 0 ? "n/a" : String.valueOf(value);
+    }
+
+    private static Sample start(Launch launch, Path appJar, Path archive, Path log) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>(List.of(java()));
+        if (launch.optimized()) {
+            command.add("-XX:SharedArchiveFile=" + archive);
+            command.add("-Dspring.aot.enabled=true");
+        }
+        command.add("-jar");
+        command.add(appJar.toString());
+        command.addAll(appArgs(launch.profile(), port));
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+        HttpRequest health = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/auth/actuator/health"))
+                .timeout(Duration.ofSeconds(1))
+                .GET()
+                .build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log.toFile()).start();
+        try {
+            while (!isUp(client, health)) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException(launch.name() + " run exited with " + process.exitValue() + ", see " + log);
+                }
+                if (System.nanoTime() - start > READY_TIMEOUT.toNanos()) {
+                    throw new IllegalStateException(launch.name() + " run not ready after " + READY_TIMEOUT + ", see " + log);
+                }
+                Thread.sleep(10);
+            }
+            long readyMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            return new Sample(readyMillis, rssMb(process.pid()), heapAfterGcMb(process.pid()));
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private static boolean isUp(HttpClient client, HttpRequest health) {
+        try {
+            return client.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // Same settings in every run (and in the training run), passed as arguments so they win over the profile
+    private static List<String> appArgs(String profile, int port) {
+        return List.of(
+                "--spring.profiles.active=" + profile,
+                "--server.port=" + port,
+                "--server.servlet.context-path=/auth",
+                "--spring.datasource.url=jdbc:h2:mem:startup;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=none",
+                "--spring.kafka.bootstrap-servers=localhost:9092",
+                "--auth.jwt.secret=Startup_Benchmark_JWT_Key_Not_For_Production_0123",
+                "--auth.kafka.spill.directory=" + System.getProperty("java.io.tmpdir") + "/auth-service/startup-spill-" + port);
+    }
+
+    private static long rssMb(long pid) {
+        Path status = Path.of("/proc", String.valueOf(pid), "status");
+        if (!Files.isReadable(status)) {
+            return -1;
+        }
+        try {
+            for (String line : Files.readAllLines(status)) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", "")) / 1024;
+                }
+            }
+        } catch (IOException e) {
+            return -1;
+        }
+        return -1;
+    }
+
+    // Heap in use after a full GC, from "jcmd <pid> GC.heap_info" (e.g. "garbage-first heap total 262144K, used 45678K")
+    private static long heapAfterGcMb(long pid) {
+        String jcmd = Path.of(System.getProperty("java.home"), "bin", "jcmd").toString();
+        try {
+            new ProcessBuilder(jcmd, String.valueOf(pid), "GC.run").redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD).start().waitFor();
+            Process heapInfo = new ProcessBuilder(jcmd, String.valueOf(pid), "GC.heap_info")
+                    .redirectErrorStream(true).start();
+            String output = new String(heapInfo.getInputStream().readAllBytes());
+            heapInfo.waitFor();
+            Matcher used = Pattern.compile("used (\\d+)K").matcher(output);
+            return used.find() ? Long.parseLong(used.group(1)) / 1024 : -1;
+        } catch (IOException e) {
+            return -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+
+    private static void exec(Path log, List<String> command) throws Exception {
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log.toFile()).start();
+        if (process.waitFor() != 0) {
+            throw new IllegalStateException(String.join(" ", command) + " failed, see " + log);
+        }
+    }
+
+    private static String java() {
+        return Path.of(System.getProperty("java.home"), "bin", "java").toString();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
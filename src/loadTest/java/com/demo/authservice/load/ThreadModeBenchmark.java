@@ -0,0 +1,137 @@
+package com.demo.authservice.load;
+
+import com.demo.authservice.AuthServiceApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compares request throughput and latency with platform and virtual request threads.
+ *
+ * <p>For each thread mode the service is started in-process (profile
+ * {@code loadtest}), seeded with users, and {@code GET /users/me} is driven by
+ * a fixed number of concurrent clients (closed model). The Hibernate
+ * second-level cache, the {@code currentUser} cache and the off-heap principal
+ * store are switched off for the run, so every request loads the principal and
+ * the user's roles from the database and the run stays dominated by blocking
+ * JDBC, which is what the thread modes differ in. Point
+ * {@code SPRING_DATASOURCE_*} at MySQL to measure against a real network round
+ * trip instead of in-memory H2.</p>
+ *
+ * <p>Run with {@code ./gradlew threadModeBenchmark -Pconcurrency=400 -Prequests=50000 -Pusers=2000}.</p>
+ */
+public class ThreadModeBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int concurrency = args.length > 0 ? Integer.parseInt(args[0]) : 400;
+        int requests = args.length > 1 ? Integer.parseInt(args[1]) : 50_000;
+        int users = args.length > 2 ? Integer.parseInt(args[2]) : 2_000;
+
+        List<Result> results = new ArrayList<>();
+        for (boolean virtual : new boolean[]{false, true}) {
+            results.add(run(virtual, concurrency, requests, users));
+        }
+
+        System.out.printf("%nconcurrency=%d requests=%d users=%d%n", concurrency, requests, users);
+        System.out.printf("%-10s %12s %10s %10s %10s %8s%n", "threads", "req/s", "p50 ms", "p99 ms", "max ms", "errors");
+        for (Result result : results) {
+            System.out.printf("%-10s %12.0f %10.2f %10.2f %10.2f %8d%n", result.mode(), result.throughput(),
+                    result.p50Millis(), result.p99Millis(), result.maxMillis(), result.errors());
+        }
+    }
+
+    private static Result run(boolean virtual, int concurrency, int requests, int users) throws Exception {
+        // Command-line arguments, so they win over application.properties
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(AuthServiceApplication.class)
+                .run("--spring.profiles.active=loadtest", "--spring.threads.virtual.enabled=" + virtual,
+                        // Caches would answer most requests without JDBC; bypass them on purpose
+                        "--spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                        "--spring.jpa.properties.hibernate.cache.use_query_cache=false",
+                        "--auth.cache.current-user.maximum-size=0",
+                        "--auth.principal-store.enabled=false")) {
+
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/auth";
+            List<HttpRequest> calls = seed(context, users, baseUrl);
+
+            HttpClient client = HttpClient.newBuilder()
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+
+            // Warm up JIT, pools and caches before measuring
+            drive(client, calls, concurrency, Math.max(requests / 10, concurrency));
+            Result result = drive(client, calls, concurrency, requests);
+            return result.withMode(virtual ? "virtual" : "platform");
+        }
+    }
+
+    private static List<HttpRequest> seed(ConfigurableApplicationContext context, int users, String baseUrl) {
+        return LoadTestSeeder.seed(context, users).users().stream()
+                .map(user -> HttpRequest.newBuilder(URI.create(baseUrl + "/users/me"))
+                        .header("Authorization", "Bearer " + user.token())
+                        .timeout(Duration.ofSeconds(30))
+                        .GET()
+                        .build())
+                .toList();
+    }
+
+    private static Result drive(HttpClient client, List<HttpRequest> calls, int concurrency, int requests)
+            throws InterruptedException {
+        long[] latencies = new long[requests];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+
+        long start = System.nanoTime();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < concurrency; c++) {
+                clients.submit(() -> {
+                    int i;
+                    while ((i = next.getAndIncrement()) < requests) {
+                        long sent = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(calls.get(i % calls.size()),
+                                    HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        latencies[i] = System.nanoTime() - sent;
+                    }
+                });
+            }
+            clients.shutdown();
+            clients.awaitTermination(1, TimeUnit.HOURS);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        Arrays.sort(latencies);
+        return new Result(null,
+                requests / (elapsed / 1e9),
+                latencies[(int) (requests * 0.50)] / 1e6,
+                latencies[Math.min(requests - 1, (int) (requests * 0.99))] / 1e6,
+                latencies[requests - 1] / 1e6,
+                errors.get());
+    }
+
+    private record Result(String mode, double throughput, double p50Millis, double p99Millis,
+                          double maxMillis, int errors) {
+
+        Result withMode(String mode) {
+            return new Result(mode, throughput, p50Millis, p99Millis, maxMillis, errors);
+        }
+    }
+}
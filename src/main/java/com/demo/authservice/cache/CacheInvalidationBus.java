@@ -0,0 +1,117 @@
+package com.demo.authservice.cache;
+
+import com.demo.authservice.kafka.KafkaProducerService;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cross-node cache invalidation over Kafka.
+ *
+ * <p>Every auth-service node keeps its own in-process caches. When a node changes
+ * user or role data, it publishes a compact invalidation message and every other
+ * node evicts the matching local entries.</p>
+ *
+ * <ul>
+ *   <li>Messages are keyed by user id ({@code user:<id>}) or by {@code roles}, and
+ *       carry the originating node id so a node ignores its own messages.</li>
+ *   <li>Outgoing invalidations are de-duplicated and flushed in batches every
+ *       {@code auth.cache.invalidation.flush-interval-ms}.</li>
+ *   <li>Each node consumes with its own consumer group, so every node sees every
+ *       message; incoming batches are de-duplicated before evicting.</li>
+ * </ul>
+ *
+ * <p>Payload format: {@code U;<node>;<userId>;<email>} or {@code R;<node>}.</p>
+ */
+
+@Component
+@ConditionalOnProperty(name = "auth.cache.invalidation.enabled", havingValue = "true", matchIfMissing = true)
+public class CacheInvalidationBus {
+
+    public static final String TOPIC = "auth-cache-invalidation";
+    public static final String LISTENER_ID = "cacheInvalidationListener";
+
+    private static final String USER = "U";
+    private static final String ROLES = "R";
+    private static final String SEPARATOR = ";";
+
+    private final KafkaProducerService kafkaProducer;
+    private final CacheInvalidator cacheInvalidator;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    // payload -> message key; keys of the map de-duplicate bursts within a flush window
+    private final Map<String, String> pending = new ConcurrentHashMap<>();
+
+    public CacheInvalidationBus(KafkaProducerService kafkaProducer, CacheInvalidator cacheInvalidator) {
+        this.kafkaProducer = kafkaProducer;
+        this.cacheInvalidator = cacheInvalidator;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public String getGroupId() {
+        return TOPIC + "-" + nodeId;
+    }
+
+    public void publishUserChanged(Long userId, String email) {
+        pending.put(String.join(SEPARATOR, USER, nodeId, String.valueOf(userId), email), "user:" + userId);
+    }
+
+    public void publishRolesChanged() {
+        pending.put(String.join(SEPARATOR, ROLES, nodeId), "roles");
+    }
+
+    @Scheduled(fixedDelayString = "${auth.cache.invalidation.flush-interval-ms:50}")
+    public void flush() {
+        for (String payload : pending.keySet()) {
+            String key = pending.remove(payload);
+            if (key != null) {
+                kafkaProducer.sendMessage(TOPIC, key, payload);
+            }
+        }
+    }
+
+    @KafkaListener(
+            id = LISTENER_ID,
+            topics = TOPIC,
+            groupId = "#{__listener.groupId}",
+            batch = "true",
+            properties = "auto.offset.reset=latest"
+    )
+    public void onInvalidations(List<ConsumerRecord<String, String>> records) {
+        Set<String> payloads = new LinkedHashSet<>();
+        for (ConsumerRecord<String, String> record : records) {
+            if (record.value() != null) {
+                payloads.add(record.value());
+            }
+        }
+
+        boolean rolesChanged = false;
+        for (String payload : payloads) {
+            String[] parts = payload.split(SEPARATOR, 4);
+            if (parts.length < 2 || parts[1].equals(nodeId)) {
+                continue; // malformed, or already evicted locally by the publishing call
+            }
+            if (ROLES.equals(parts[0])) {
+                rolesChanged = true;
+            } else if (USER.equals(parts[0]) && parts.length == 4) {
+                cacheInvalidator.evictUserLocally(Long.valueOf(parts[2]), parts[3]);
+            }
+        }
+
+        if (rolesChanged) {
+            cacheInvalidator.evictRolesLocally();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.demo.authservice.cache;
+
+import com.demo.authservice.security.PrincipalStore;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+/**
+ * Single entry point for invalidating cached user and role data.
+ *
+ * <p>Changes are applied to the local Spring and Hibernate caches (and the
+ * off-heap principal store, when enabled) immediately
+ * and, when the {@link CacheInvalidationBus} is enabled, broadcast to every
+ * other auth-service node so that no replica keeps serving stale data.</p>
+ */
+
+@Component
+public class CacheInvalidator {
+
+    private final CacheManager cacheManager;
+    private final SecondLevelCacheEvictor secondLevelCacheEvictor;
+    private final ObjectProvider<CacheInvalidationBus> invalidationBus;
+    private final ObjectProvider<PrincipalStore> principalStore;
+
+    public CacheInvalidator(CacheManager cacheManager,
+                            SecondLevelCacheEvictor secondLevelCacheEvictor,
+                            ObjectProvider<CacheInvalidationBus> invalidationBus,
+                            ObjectProvider<PrincipalStore> principalStore) {
+        this.cacheManager = cacheManager;
+        this.secondLevelCacheEvictor = secondLevelCacheEvictor;
+        this.invalidationBus = invalidationBus;
+        this.principalStore = principalStore;
+    }
+
+    // A user's roles or profile changed on this node
+    public void userChanged(Long userId, String email) {
+        evictUserLocally(userId, email);
+        invalidationBus.ifAvailable(bus -> bus.publishUserChanged(userId, email));
+    }
+
+    // Roles were created or modified on this node
+    public void rolesChanged() {
+        evictRolesLocally();
+        invalidationBus.ifAvailable(CacheInvalidationBus::publishRolesChanged);
+    }
+
+    public void evictUserLocally(Long userId, String email) {
+        Cache cache = cacheManager.getCache(CacheNames.CURRENT_USER);
+        if (cache != null) {
+            cache.evict(email);
+        }
+        secondLevelCacheEvictor.evictUserRoles(userId);
+        principalStore.ifAvailable(store -> store.remove(email));
+    }
+
+    public void evictRolesLocally() {
+        secondLevelCacheEvictor.evictRoles();
+        principalStore.ifAvailable(PrincipalStore::rolesChanged);
+    }
+}
@@ -0,0 +1,9 @@
+package com.demo.authservice.cache;
+
+/**
+ * Names of the Spring caches managed by {@link com.demo.authservice.config.CacheConfig}.
+ */
+public class CacheNames {
+
+    public static final String CURRENT_USER = "currentUser";
+}
@@ -0,0 +1,15 @@
+package com.demo.authservice.cache;
+
+/**
+ * Hibernate second-level cache region names.
+ *
+ * <p>Regions are sized in {@code application.conf} (Caffeine JCache configuration).</p>
+ */
+public class CacheRegions {
+
+    public static final String ROLES = "auth.roles";
+    public static final String USER_ROLES = "auth.user-roles";
+    public static final String ROLE_QUERIES = "auth.role-queries";
+
+    public static final String USER_ROLES_COLLECTION = "com.demo.authservice.entity.UserEntity.roles";
+}
@@ -0,0 +1,38 @@
+package com.demo.authservice.cache;
+
+import com.demo.authservice.entity.UserEntity;
+import com.demo.authservice.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Loads users by email with request coalescing.
+ *
+ * <p>When many requests for the same principal arrive at once (a popular
+ * client's tokens expiring, a node restart), they share a single
+ * {@code findByEmail} query instead of each hitting the database. Used by the
+ * JWT filter and by {@code UserService.getCurrentUser}.</p>
+ *
+ * <p>The returned entity is detached and may be shared between threads, so it
+ * must be treated as read-only.</p>
+ */
+
+@Component
+public class CoalescingUserLoader {
+
+    private final UserRepository userRepository;
+    private final SingleFlight<String, Optional<UserEntity>> loads;
+
+    public CoalescingUserLoader(UserRepository userRepository,
+                                @Value("${auth.user-loader.timeout:2s}") Duration timeout) {
+        this.userRepository = userRepository;
+        this.loads = new SingleFlight<>(timeout);
+    }
+
+    public Optional<UserEntity> findByEmail(String email) {
+        return loads.load(email, () -> userRepository.findByEmail(email));
+    }
+}
@@ -0,0 +1,36 @@
+package com.demo.authservice.cache;
+
+import com.demo.authservice.entity.RoleEntity;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Explicit eviction of the Hibernate second-level cache regions holding role data.
+ *
+ * <p>Hibernate keeps read-write regions consistent for changes made through the
+ * entity manager. These methods are called after role writes anyway so that
+ * role changes are visible immediately, including writes that bypass Hibernate.</p>
+ */
+
+@Component
+public class SecondLevelCacheEvictor {
+
+    private final Cache cache;
+
+    public SecondLevelCacheEvictor(EntityManagerFactory entityManagerFactory) {
+        this.cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+
+    // Role definitions and the findByName/existsByName query results
+    public void evictRoles() {
+        cache.evictEntityData(RoleEntity.class);
+        cache.evictQueryRegion(CacheRegions.ROLE_QUERIES);
+    }
+
+    // Cached role set of a single user
+    public void evictUserRoles(Long userId) {
+        cache.evictCollectionData(CacheRegions.USER_ROLES_COLLECTION, userId);
+    }
+}
@@ -0,0 +1,65 @@
+package com.demo.authservice.config;
+
+import com.demo.authservice.constants.AuthEndpoints;
+import com.demo.authservice.limit.AdaptiveConcurrencyLimit;
+import com.demo.authservice.limit.ConcurrencyLimitFilter;
+import com.demo.authservice.observability.Rejections;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Adaptive concurrency limit for the login and registration endpoints.
+ *
+ * <p>Both endpoints spend most of their time in BCrypt, so they share one limit.
+ * The limit starts at twice the available processors (unless
+ * {@code auth.limiter.initial-limit} is set) and adapts from there between
+ * {@code auth.limiter.min-limit} and {@code auth.limiter.max-limit}.</p>
+ */
+
+@Configuration
+@ConditionalOnProperty(name = "auth.limiter.enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitConfig {
+
+    @Value("${auth.limiter.initial-limit:0}")
+    private int initialLimit;
+
+    @Value("${auth.limiter.min-limit:0}")
+    private int minLimit;
+
+    @Value("${auth.limiter.max-limit:200}")
+    private int maxLimit;
+
+    @Value("${auth.limiter.window-size:50}")
+    private int windowSize;
+
+    @Value("${auth.limiter.probe-interval:200}")
+    private int probeInterval;
+
+    @Bean
+    public AdaptiveConcurrencyLimit authConcurrencyLimit() {
+        int processors = Runtime.getRuntime().availableProcessors();
+        return new AdaptiveConcurrencyLimit(
+                initialLimit > 0 ? initialLimit : 2 * processors,
+                minLimit > 0 ? minLimit : processors,
+                maxLimit,
+                windowSize,
+                probeInterval);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(AdaptiveConcurrencyLimit authConcurrencyLimit,
+                                                                                 MeterRegistry meterRegistry,
+                                                                                 Rejections rejections) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration =
+                new FilterRegistrationBean<>(new ConcurrencyLimitFilter(authConcurrencyLimit, meterRegistry, rejections));
+        registration.addUrlPatterns(AuthEndpoints.LOGIN, AuthEndpoints.REGISTER);
+        // Ahead of the Spring Security filter chain
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
@@ -0,0 +1,16 @@
+package com.demo.authservice.config;
+
+/**
+ * Workload classes that get their own, independently sized connection pool.
+ *
+ * <ul>
+ *   <li>{@link #AUTH} - authentication hot path (token filter, login, registration, current user).</li>
+ *   <li>{@link #ADMIN} - admin and reporting operations such as statistics and role management.</li>
+ *   <li>{@link #BULK} - long-running bulk jobs (provisioning, exports, imports, relays).</li>
+ * </ul>
+ */
+public enum DataSourcePool {
+    AUTH,
+    ADMIN,
+    BULK
+}
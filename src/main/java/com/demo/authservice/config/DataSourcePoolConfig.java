@@ -0,0 +1,91 @@
+package com.demo.authservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Bulkheaded connection pools for the Auth Service.
+ *
+ * <p>Instead of a single shared Hikari pool, one pool is created per
+ * {@link DataSourcePool}. All pools share the {@code spring.datasource.*}
+ * connection settings, while sizing and timeouts are configured per pool under
+ * {@code auth.datasource.pools.<auth|admin|bulk>.*} (any Hikari property).</p>
+ *
+ * <ul>
+ *   <li>A slow admin report or bulk job can only exhaust its own pool, so token
+ *       validation and logins never queue behind it.</li>
+ *   <li>Each pool is a separate bean and therefore gets its own
+ *       {@code hikaricp.*} metrics, tagged with the pool name.</li>
+ *   <li>The {@link Primary} data source used by JPA, Flyway and JDBC routes to
+ *       the pool selected by {@link DataSourcePoolContext}.</li>
+ *   <li>When virtual threads are enabled ({@code spring.threads.virtual.enabled}),
+ *       each pool is fronted by a {@link ConnectionLimitingDataSource} sized to
+ *       the pool, so unbounded virtual threads queue on a semaphore rather than
+ *       overrunning Hikari. The pool's {@code connectionTimeout} bounds the
+ *       semaphore wait and the Hikari wait together.</li>
+ * </ul>
+ */
+
+@Configuration
+public class DataSourcePoolConfig {
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Bean
+    @ConfigurationProperties("auth.datasource.pools.auth")
+    public HikariDataSource authDataSource(DataSourceProperties properties) {
+        return createPool(properties);
+    }
+
+    @Bean
+    @ConfigurationProperties("auth.datasource.pools.admin")
+    public HikariDataSource adminDataSource(DataSourceProperties properties) {
+        return createPool(properties);
+    }
+
+    @Bean
+    @ConfigurationProperties("auth.datasource.pools.bulk")
+    public HikariDataSource bulkDataSource(DataSourceProperties properties) {
+        return createPool(properties);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("authDataSource") HikariDataSource authDataSource,
+                                 @Qualifier("adminDataSource") HikariDataSource adminDataSource,
+                                 @Qualifier("bulkDataSource") HikariDataSource bulkDataSource) {
+        Map<Object, Object> pools = new HashMap<>();
+        pools.put(DataSourcePool.AUTH, limited(authDataSource));
+        pools.put(DataSourcePool.ADMIN, limited(adminDataSource));
+        pools.put(DataSourcePool.BULK, limited(bulkDataSource));
+
+        PoolRoutingDataSource routingDataSource = new PoolRoutingDataSource();
+        routingDataSource.setTargetDataSources(pools);
+        routingDataSource.setDefaultTargetDataSource(pools.get(DataSourcePool.AUTH));
+        return routingDataSource;
+    }
+
+    private DataSource limited(HikariDataSource pool) {
+        if (!virtualThreads) {
+            return pool;
+        }
+        return new ConnectionLimitingDataSource(pool, pool.getMaximumPoolSize(), pool.getConnectionTimeout());
+    }
+
+    private HikariDataSource createPool(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+    }
+}
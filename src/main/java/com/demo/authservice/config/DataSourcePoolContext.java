@@ -0,0 +1,51 @@
+package com.demo.authservice.config;
+
+/**
+ * Thread-bound selector of the {@link DataSourcePool} used by {@link PoolRoutingDataSource}.
+ *
+ * <p>Code that belongs to the admin or bulk workload opens a scope before touching
+ * the database:</p>
+ *
+ * <pre>
+ * try (DataSourcePoolContext.Scope ignored = DataSourcePoolContext.use(DataSourcePool.ADMIN)) {
+ *     ...
+ * }
+ * </pre>
+ *
+ * <p>The pool is chosen when a connection is acquired, so the scope must be opened
+ * before the surrounding transaction (if any) begins. Threads without a scope use
+ * {@link DataSourcePool#AUTH}.</p>
+ */
+public final class DataSourcePoolContext {
+
+    private static final ThreadLocal<DataSourcePool> CURRENT = new ThreadLocal<>();
+
+    private DataSourcePoolContext() {
+    }
+
+    public static DataSourcePool current() {
+        DataSourcePool pool = CURRENT.get();
+        return pool != null ? pool : DataSourcePool.AUTH;
+    }
+
+    public static Scope use(DataSourcePool pool) {
+        DataSourcePool previous = CURRENT.get();
+        CURRENT.set(pool);
+        return () -> {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    /**
+     * Restores the previously selected pool when closed.
+     */
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,14 @@
+package com.demo.authservice.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * Routes connection requests to the pool selected by {@link DataSourcePoolContext}.
+ */
+public class PoolRoutingDataSource extends AbstractRoutingDataSource {
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return DataSourcePoolContext.current();
+    }
+}
@@ -2,12 +2,14 @@ package com.demo.authservice.config;
 
 import com.demo.authservice.constants.AuthEndpoints;
 import com.demo.authservice.security.JwtAuthenticationFilter;
+import com.demo.authservice.security.WrappingPasswordEncoder;
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
@@ -19,6 +21,10 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
  * defining which endpoints are publicly accessible. All other requests
  * must be authenticated. CSRF is disabled since the service operates as
  * a stateless REST API.</p>
+ *
+ * <p>The Swagger UI and API docs paths are only public while springdoc's
+ * API docs are enabled ({@code springdoc.api-docs.enabled}, off in {@code prod}).
+ * {@code /actuator/prometheus} needs the scrape token or an admin JWT.</p>
  */
 
 @Configuration
@@ -27,34 +33,49 @@ public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthFilter;
 
+    private final boolean apiDocsEnabled;
+
 
-    public SecurityConfig(JwtAuthenticationFilter jwtAuthFilter) {
+    public SecurityConfig(JwtAuthenticationFilter jwtAuthFilter,
+                          @Value("${springdoc.api-docs.enabled:true}") boolean apiDocsEnabled) {
         this.jwtAuthFilter = jwtAuthFilter;
+        this.apiDocsEnabled = apiDocsEnabled;
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public WrappingPasswordEncoder passwordEncoder() {
+        // BCrypt, plus verification of legacy hashes wrapped by the user import
+        return new WrappingPasswordEncoder(new BCryptPasswordEncoder());
     }
 
 
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http.csrf(csrf -> csrf.disable())
-                .authorizeHttpRequests(auth -> auth
-                        // Public endpoints
-                        .requestMatchers(
-                                AuthEndpoints.REGISTER,
-                                AuthEndpoints.LOGIN,
+                .authorizeHttpRequests(auth -> {
+                    // Async dispatches (streamed exports) resume a request that was already authorized
+                    auth.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll();
+                    // Public endpoints
+                    auth.requestMatchers(
+                            AuthEndpoints.REGISTER,
+                            AuthEndpoints.LOGIN,
+                            AuthEndpoints.HEALTH,
+                            AuthEndpoints.HEALTH + "/**"
+                    ).permitAll();
+                    if (apiDocsEnabled) {
+                        auth.requestMatchers(
                                 AuthEndpoints.SWAGGER_UI_HTML,
                                 AuthEndpoints.SWAGGER_UI + "/**",
                                 AuthEndpoints.API_DOCS + "/**"
-                        ).permitAll()
-                        .anyRequest().authenticated()
-                )
+                        ).permitAll();
+                    }
+                    // Scraped with auth.metrics.scrape-token; latency and rejection metrics are not public
+                    auth.requestMatchers(AuthEndpoints.PROMETHEUS).hasAnyRole("METRICS", "ADMIN");
+                    auth.requestMatchers(AuthEndpoints.FLIGHT_RECORDING).hasRole("ADMIN")
+                            .anyRequest().authenticated();
+                })
                 .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
 
         return http.build();
     }
 }
-
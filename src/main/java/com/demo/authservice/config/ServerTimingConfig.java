@@ -0,0 +1,29 @@
+package com.demo.authservice.config;
+
+import com.demo.authservice.observability.ServerTimingFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Opt-in {@code Server-Timing} response header ({@code auth.server-timing.enabled}).
+ *
+ * <p>When disabled the filter is not registered and phase timing only pays for
+ * one thread-local lookup per phase.</p>
+ */
+
+@Configuration
+@ConditionalOnProperty(name = "auth.server-timing.enabled", havingValue = "true")
+public class ServerTimingConfig {
+
+    @Bean
+    public FilterRegistrationBean<ServerTimingFilter> serverTimingFilter() {
+        FilterRegistrationBean<ServerTimingFilter> registration = new FilterRegistrationBean<>(new ServerTimingFilter());
+        registration.addUrlPatterns("/*");
+        // Ahead of the concurrency limiter and the Spring Security filter chain (and so the JWT filter)
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 5);
+        return registration;
+    }
+}
@@ -4,6 +4,7 @@ import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.info.Info;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import io.swagger.v3.oas.models.Components;
 import io.swagger.v3.oas.models.security.SecurityRequirement;
 import io.swagger.v3.oas.models.security.SecurityScheme;
@@ -18,9 +19,13 @@ import io.swagger.v3.oas.models.security.SecurityScheme;
  * <p>It also sets up a global Bearer Authentication scheme so that
  * protected endpoints can be accessed using JWT tokens directly
  * from Swagger UI.</p>
+ *
+ * <p>Not loaded with the {@code prod} profile, which also switches off
+ * springdoc's API docs and Swagger UI.</p>
  */
 
 @Configuration
+@Profile("!prod")
 public class SwaggerConfig {
 
     @Bean
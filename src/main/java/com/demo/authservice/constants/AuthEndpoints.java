@@ -7,5 +7,8 @@ public class AuthEndpoints {
     public static final String SWAGGER_UI = "/swagger-ui";
     public static final String SWAGGER_UI_HTML = "/swagger-ui.html";
     public static final String API_DOCS = "/v3/api-docs";
+    public static final String PROMETHEUS = "/actuator/prometheus";
+    public static final String HEALTH = "/actuator/health";
+    public static final String FLIGHT_RECORDING = "/actuator/jfr";
     public static final String CONTENT_TYPE = "application/json";
 }
@@ -6,6 +6,7 @@ import com.demo.authservice.service.RoleService;
 import com.demo.authservice.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -27,7 +28,7 @@ public class RoleController {
 
     private final UserService userService;
 
-    public RoleController(RoleService roleService, UserService userService) {
+    public RoleController(@Lazy RoleService roleService, UserService userService) {
         this.roleService = roleService;
         this.userService = userService;
     }
@@ -3,14 +3,28 @@ package com.demo.authservice.controller;
 import com.demo.authservice.model.AssignRoleRequest;
 import com.demo.authservice.model.UserResponse;
 import com.demo.authservice.model.UserLoginRequest;
+import com.demo.authservice.model.UserExportFormat;
+import com.demo.authservice.model.UserImportJobResponse;
 import com.demo.authservice.model.UserRegisterRequest;
+import com.demo.authservice.security.AuthPrincipal;
 
+import com.demo.authservice.service.UserExportService;
+import com.demo.authservice.service.UserImportService;
 import com.demo.authservice.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -19,6 +33,12 @@ import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.util.Locale;
 
 
 @RestController
@@ -26,10 +46,21 @@ import org.springframework.web.bind.annotation.RequestHeader;
 @Tag(name = "UserEntity Management", description = "Endpoints for user management")
 public class UserController {
 
+    // Clients may keep the body but must revalidate it; shared caches must not store it
+    private static final CacheControl CURRENT_USER_CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
     private final UserService userService;
 
-    public UserController(UserService userService) {
+    private final UserExportService userExportService;
+
+    private final UserImportService userImportService;
+
+    public UserController(UserService userService,
+                          @Lazy UserExportService userExportService,
+                          @Lazy UserImportService userImportService) {
         this.userService = userService;
+        this.userExportService = userExportService;
+        this.userImportService = userImportService;
     }
 
     @PostMapping("/register")
@@ -37,8 +68,9 @@ public class UserController {
             summary = "Register a new user",
             description = "Registers a new user with username, email, and password"
     )
-    public ResponseEntity<UserResponse> register(@RequestBody @Valid UserRegisterRequest request) {
-        UserResponse response = userService.register(request);
+    public ResponseEntity<UserResponse> register(@RequestBody @Valid UserRegisterRequest request,
+                                                 HttpServletRequest httpRequest) {
+        UserResponse response = userService.register(request, httpRequest.getRemoteAddr());
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
@@ -48,21 +80,122 @@ public class UserController {
             summary = "UserEntity login",
             description = "Authenticate user and return JWT token"
     )
-    public ResponseEntity<String> login(@RequestBody @Valid UserLoginRequest request) {
-        String token = userService.login(request);
+    public ResponseEntity<String> login(@RequestBody @Valid UserLoginRequest request,
+                                        HttpServletRequest httpRequest) {
+        String token = userService.login(request, httpRequest.getRemoteAddr());
         return ResponseEntity.status(HttpStatus.OK).body(token);
     }
 
     @GetMapping("/me")
     @Operation(
             summary = "Get current user info",
-            description = "Returns information about the currently authenticated user"
+            description = "Returns information about the currently authenticated user. "
+                    + "Responses carry a strong ETag; If-None-Match with the current tag returns 304 without a body"
     )
     public ResponseEntity<UserResponse> getCurrentUser(
-            @RequestHeader(value = "Authorization") String authHeader) {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        UserResponse user = userService.getCurrentUser(email);
-        return ResponseEntity.ok(user);
+            @RequestHeader(value = "Authorization") String authHeader,
+            WebRequest webRequest,
+            HttpServletResponse httpResponse) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String email = authentication.getName();
+
+        if (!(authentication.getDetails() instanceof AuthPrincipal principal)) {
+            return ResponseEntity.ok(userService.getCurrentUser(email));
+        }
+
+        // Answered from the principal the filter already loaded; the body is only built on a mismatch
+        String etag = principal.etag();
+        if (webRequest.checkNotModified(etag)) {
+            // 304 and ETag are already set on the response; null tells MVC it is complete
+            httpResponse.setHeader(HttpHeaders.CACHE_CONTROL, CURRENT_USER_CACHE_CONTROL.getHeaderValue());
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CURRENT_USER_CACHE_CONTROL)
+                .body(userService.getCurrentUser(email));
+    }
+
+
+    @GetMapping("/export")
+    @Operation(
+            summary = "Export users",
+            description = "Streams all users with their roles as NDJSON (default) or CSV (Admin only). "
+                    + "The body is gzip-encoded when the request sends Accept-Encoding: gzip"
+    )
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @RequestHeader(value = "Authorization") String authHeader,
+            @RequestParam(value = "format", defaultValue = "ndjson") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        UserExportFormat exportFormat = UserExportFormat.from(format);
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip");
+
+        StreamingResponseBody body = userExportService.exportUsers(exportFormat, gzip);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.contentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("users." + exportFormat.extension())
+                        .build()
+                        .toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    @Operation(
+            summary = "Import users",
+            description = "Starts a background import of a CSV file with the columns username, email, password "
+                    + "and optionally password_format (plain, bcrypt, md5, sha1, sha256) and roles "
+                    + "(separated by ';') (Admin only)"
+    )
+    public ResponseEntity<UserImportJobResponse> importUsers(
+            @RequestHeader(value = "Authorization") String authHeader,
+            HttpServletRequest httpRequest) throws IOException {
+        UserImportJobResponse job = userImportService.startImport(httpRequest.getInputStream());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+
+
+    @GetMapping("/import/{jobId}")
+    @Operation(
+            summary = "Get an import",
+            description = "Returns the status and row counts of a user import (Admin only)"
+    )
+    public ResponseEntity<UserImportJobResponse> getImport(
+            @RequestHeader(value = "Authorization") String authHeader,
+            @PathVariable String jobId) {
+        return ResponseEntity.ok(userImportService.getImport(jobId));
+    }
+
+
+    @PostMapping("/import/{jobId}/resume")
+    @Operation(
+            summary = "Resume an import",
+            description = "Continues a failed or interrupted user import after its last committed row (Admin only)"
+    )
+    public ResponseEntity<UserImportJobResponse> resumeImport(
+            @RequestHeader(value = "Authorization") String authHeader,
+            @PathVariable String jobId) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(userImportService.resumeImport(jobId));
+    }
+
+
+    @GetMapping("/import/{jobId}/errors")
+    @Operation(
+            summary = "Get import errors",
+            description = "Returns the rejected rows of a user import as CSV: row, email, reason (Admin only)"
+    )
+    public ResponseEntity<Resource> getImportErrors(
+            @RequestHeader(value = "Authorization") String authHeader,
+            @PathVariable String jobId) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("text/csv;charset=UTF-8"))
+                .body(userImportService.getErrorReport(jobId));
     }
 
 
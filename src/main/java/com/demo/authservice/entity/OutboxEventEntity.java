@@ -0,0 +1,66 @@
+package com.demo.authservice.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Event waiting in the transactional outbox to be published to Kafka.
+ *
+ * <p>Rows are written in the same transaction as the user change they describe
+ * and marked as sent by the outbox relay once the broker has acknowledged them.
+ * A row the broker keeps refusing is parked ({@code parkedDate} set) and no
+ * longer relayed.</p>
+ */
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "outbox_events")
+public class OutboxEventEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 100)
+    private String topic;
+
+    // Partition key, e.g. the user id; events with the same key are relayed in order
+    @Column(name = "message_key", nullable = false, length = 100)
+    private String messageKey;
+
+    // Encoded by the configured UserEventSerializer
+    @Column(nullable = false, length = 4000)
+    private byte[] payload;
+
+    @Column(name = "created_date", nullable = false)
+    private LocalDateTime createdDate;
+
+    @Column(name = "sent_date")
+    private LocalDateTime sentDate;
+
+    // Failed publish attempts
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "parked_date")
+    private LocalDateTime parkedDate;
+}
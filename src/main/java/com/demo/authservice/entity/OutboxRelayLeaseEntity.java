@@ -0,0 +1,43 @@
+package com.demo.authservice.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lease that makes one replica the outbox relay leader.
+ *
+ * <p>The owner renews it on every poll; another replica takes it over only once
+ * {@code lockedUntil} has passed, so events of one key are never relayed by two
+ * nodes at the same time.</p>
+ */
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "outbox_relay_lease")
+public class OutboxRelayLeaseEntity {
+
+    @Id
+    @Column(length = 50)
+    private String name;
+
+    // Node id of the current leader
+    @Column(length = 36)
+    private String owner;
+
+    @Column(name = "locked_until", nullable = false)
+    private LocalDateTime lockedUntil;
+}
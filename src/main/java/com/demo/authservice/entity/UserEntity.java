@@ -1,5 +1,6 @@
 package com.demo.authservice.entity;
 
+import com.demo.authservice.cache.CacheRegions;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Table;
 import jakarta.persistence.GeneratedValue;
@@ -17,6 +18,8 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.Builder;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.ZonedDateTime;
 import java.util.HashSet;
@@ -46,6 +49,7 @@ public class UserEntity extends AuditEntity{
     private String password; // BCrypt hashed
 
     @ManyToMany(fetch = FetchType.EAGER)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.USER_ROLES)
     @JoinTable(
             name = "user_roles",
             joinColumns = @JoinColumn(name = "user_id"),
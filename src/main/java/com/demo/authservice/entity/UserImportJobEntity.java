@@ -0,0 +1,71 @@
+package com.demo.authservice.entity;
+
+import com.demo.authservice.model.UserImportStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress and checkpoint of a user import.
+ *
+ * <p>{@code rowsProcessed} is the checkpoint: the number of CSV data rows whose
+ * outcome is committed. It is updated in the same transaction as the users of
+ * each batch, so a resumed import skips exactly those rows.</p>
+ */
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "user_import_jobs")
+public class UserImportJobEntity {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private UserImportStatus status;
+
+    // Uploaded CSV spooled on the node that accepted it
+    @Column(name = "source_file", nullable = false, length = 500)
+    private String sourceFile;
+
+    @Column(name = "rows_processed", nullable = false)
+    private long rowsProcessed;
+
+    @Column(name = "rows_imported", nullable = false)
+    private long rowsImported;
+
+    @Column(name = "rows_duplicate", nullable = false)
+    private long rowsDuplicate;
+
+    @Column(name = "rows_invalid", nullable = false)
+    private long rowsInvalid;
+
+    @Column(name = "failure_reason", length = 1000)
+    private String failureReason;
+
+    @Column(name = "created_by", length = 100)
+    private String createdBy;
+
+    @Column(name = "created_date", nullable = false)
+    private LocalDateTime createdDate;
+
+    @Column(name = "modified_date", nullable = false)
+    private LocalDateTime modifiedDate;
+}
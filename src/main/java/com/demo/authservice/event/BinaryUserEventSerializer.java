@@ -0,0 +1,177 @@
+package com.demo.authservice.event;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact, schema-versioned binary encoding of {@link UserEvent}s.
+ *
+ * <p>Layout of schema version 2 (integers are unsigned LEB128 varints, strings
+ * are a varint byte length followed by UTF-8):</p>
+ *
+ * <pre>
+ * version    byte     schema version, currently 2
+ * type       byte     {@link UserEventType#code()}
+ * userId     varint
+ * timestamp  varint   epoch milliseconds
+ * email      string
+ * roles      varint count, then one string per role
+ * sourceIp   byte     0 = absent, 4 = IPv4 (4 raw bytes follow), 1 = other (string follows)
+ * -- added in version 2; absent in version 1 (count 1, first = timestamp)
+ * count      varint   occurrences the event stands for
+ * firstDelta varint   timestamp minus first occurrence, in milliseconds
+ * </pre>
+ *
+ * <p>Compatibility rules: fields are only ever appended, so a reader ignores
+ * trailing bytes it does not know and can read any later version. A breaking
+ * change must raise {@link #MIN_VERSION}; older versions are then rejected.</p>
+ */
+public class BinaryUserEventSerializer implements UserEventSerializer {
+
+    public static final String FORMAT = "binary";
+
+    static final int VERSION = 2;
+    static final int MIN_VERSION = 1;
+
+    private static final int IP_ABSENT = 0;
+    private static final int IP_TEXT = 1;
+    private static final int IP_V4 = 4;
+
+    @Override
+    public String format() {
+        return FORMAT;
+    }
+
+    @Override
+    public byte[] serialize(UserEvent event) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64);
+        out.write(VERSION);
+        out.write(event.type().code());
+        writeVarLong(out, event.userId());
+        writeVarLong(out, event.timestamp().toEpochMilli());
+        writeString(out, event.email());
+
+        writeVarLong(out, event.roles().size());
+        for (String role : event.roles()) {
+            writeString(out, role);
+        }
+
+        byte[] ipv4 = parseIpv4(event.sourceIp());
+        if (event.sourceIp() == null) {
+            out.write(IP_ABSENT);
+        } else if (ipv4 != null) {
+            out.write(IP_V4);
+            out.writeBytes(ipv4);
+        } else {
+            out.write(IP_TEXT);
+            writeString(out, event.sourceIp());
+        }
+
+        writeVarLong(out, event.count());
+        writeVarLong(out, event.timestamp().toEpochMilli() - event.firstTimestamp().toEpochMilli());
+        return out.toByteArray();
+    }
+
+    @Override
+    public UserEvent deserialize(byte[] data) {
+        ByteBuffer in = ByteBuffer.wrap(data);
+
+        int version = Byte.toUnsignedInt(in.get());
+        if (version < MIN_VERSION) {
+            throw new IllegalArgumentException("Unsupported user event schema version: " + version);
+        }
+
+        UserEventType type = UserEventType.fromCode(Byte.toUnsignedInt(in.get()));
+        long userId = readVarLong(in);
+        Instant timestamp = Instant.ofEpochMilli(readVarLong(in));
+        String email = readString(in);
+
+        int roleCount = (int) readVarLong(in);
+        List<String> roles = new ArrayList<>(roleCount);
+        for (int i = 0; i < roleCount; i++) {
+            roles.add(readString(in));
+        }
+
+        String sourceIp = switch (Byte.toUnsignedInt(in.get())) {
+            case IP_ABSENT -> null;
+            case IP_V4 -> Byte.toUnsignedInt(in.get()) + "." + Byte.toUnsignedInt(in.get()) + "."
+                    + Byte.toUnsignedInt(in.get()) + "." + Byte.toUnsignedInt(in.get());
+            case IP_TEXT -> readString(in);
+            default -> throw new IllegalArgumentException("Unknown source IP encoding");
+        };
+
+        int count = 1;
+        Instant firstTimestamp = timestamp;
+        if (in.hasRemaining()) {
+            count = (int) readVarLong(in);
+            firstTimestamp = timestamp.minusMillis(readVarLong(in));
+        }
+
+        return new UserEvent(type, userId, email, timestamp, roles, sourceIp, count, firstTimestamp);
+    }
+
+    // --------------------------
+    //  PRIMITIVES
+    // --------------------------
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length);
+        out.writeBytes(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = (int) readVarLong(in);
+        String value = new String(in.array(), in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+
+    // Returns the four address bytes of a dotted-quad literal, null for anything else
+    private static byte[] parseIpv4(String ip) {
+        if (ip == null) {
+            return null;
+        }
+        String[] parts = ip.split("\\.", -1);
+        if (parts.length != 4) {
+            return null;
+        }
+        byte[] address = new byte[4];
+        for (int i = 0; i < 4; i++) {
+            String part = parts[i];
+            if (part.isEmpty() || part.length() > 3 || !part.chars().allMatch(Character::isDigit)) {
+                return null;
+            }
+            int octet = Integer.parseInt(part);
+            if (octet > 255 || (part.length() > 1 && part.charAt(0) == '0')) {
+                return null;
+            }
+            address[i] = (byte) octet;
+        }
+        return address;
+    }
+}
@@ -0,0 +1,45 @@
+package com.demo.authservice.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * JSON encoding of {@link UserEvent}s, for consumers that cannot read the
+ * binary format. Timestamps are written as ISO-8601 strings.
+ */
+public class JsonUserEventSerializer implements UserEventSerializer {
+
+    public static final String FORMAT = "json";
+
+    private final ObjectMapper objectMapper;
+
+    public JsonUserEventSerializer(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public String format() {
+        return FORMAT;
+    }
+
+    @Override
+    public byte[] serialize(UserEvent event) {
+        try {
+            return objectMapper.writeValueAsBytes(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize user event", e);
+        }
+    }
+
+    @Override
+    public UserEvent deserialize(byte[] data) {
+        try {
+            return objectMapper.readValue(data, UserEvent.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot deserialize user event", e);
+        }
+    }
+}
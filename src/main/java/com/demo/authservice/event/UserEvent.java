@@ -0,0 +1,47 @@
+package com.demo.authservice.event;
+
+import com.demo.authservice.entity.RoleEntity;
+import com.demo.authservice.entity.UserEntity;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A user lifecycle event as published to Kafka.
+ *
+ * <p>Carries enough context (roles, source IP) that consumers don't need to
+ * call back into auth-service. {@code sourceIp} is {@code null} for events
+ * not triggered by a client request.</p>
+ *
+ * <p>{@code count} and {@code firstTimestamp} describe how many occurrences the
+ * event stands for: 1 and {@code timestamp} for a single event, the login count
+ * and first login of the window for {@link UserEventType#LOGIN_SUMMARY}.</p>
+ */
+public record UserEvent(UserEventType type,
+                        Long userId,
+                        String email,
+                        Instant timestamp,
+                        List<String> roles,
+                        String sourceIp,
+                        int count,
+                        Instant firstTimestamp) {
+
+    public UserEvent {
+        roles = roles != null ? List.copyOf(roles) : List.of();
+        count = Math.max(count, 1);
+        firstTimestamp = firstTimestamp != null ? firstTimestamp : timestamp;
+    }
+
+    public UserEvent(UserEventType type, Long userId, String email, Instant timestamp,
+                     List<String> roles, String sourceIp) {
+        this(type, userId, email, timestamp, roles, sourceIp, 1, timestamp);
+    }
+
+    public static UserEvent of(UserEventType type, UserEntity user, String sourceIp) {
+        List<String> roles = user.getRoles().stream()
+                .map(RoleEntity::getName)
+                .sorted()
+                .toList();
+        return new UserEvent(type, user.getId(), user.getEmail(), Instant.now(), roles, sourceIp);
+    }
+}
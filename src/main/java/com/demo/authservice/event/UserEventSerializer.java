@@ -0,0 +1,21 @@
+package com.demo.authservice.event;
+
+/**
+ * Encodes {@link UserEvent}s for the outbox and Kafka.
+ *
+ * <p>The implementation in use is selected by {@code auth.kafka.events.format}
+ * in {@link com.demo.authservice.kafka.KafkaProducerConfig}. Consumers can tell
+ * the formats apart by the first byte: the binary schema version (a small
+ * integer) versus <code>'{'</code> for JSON.</p>
+ */
+public interface UserEventSerializer {
+
+    /**
+     * Format name as used in {@code auth.kafka.events.format}.
+     */
+    String format();
+
+    byte[] serialize(UserEvent event);
+
+    UserEvent deserialize(byte[] data);
+}
@@ -0,0 +1,42 @@
+package com.demo.authservice.event;
+
+/**
+ * Kinds of user lifecycle events and the topic each one is published to.
+ *
+ * <p>{@link #code()} is the value written by the binary format; codes must never
+ * be reused or renumbered.</p>
+ */
+public enum UserEventType {
+
+    REGISTERED(1, "user-registration"),
+    LOGIN(2, "user-login"),
+    ROLES_CHANGED(3, "user-roles-changed"),
+    REVOKED(4, "user-revoked"),
+    // Several logins of one user folded together; shares the topic of LOGIN
+    LOGIN_SUMMARY(5, "user-login");
+
+    private final int code;
+    private final String topic;
+
+    UserEventType(int code, String topic) {
+        this.code = code;
+        this.topic = topic;
+    }
+
+    public int code() {
+        return code;
+    }
+
+    public String topic() {
+        return topic;
+    }
+
+    public static UserEventType fromCode(int code) {
+        for (UserEventType type : values()) {
+            if (type.code == code) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown user event type code: " + code);
+    }
+}
@@ -1,5 +1,8 @@
 package com.demo.authservice.exception;
 
+import com.demo.authservice.observability.RejectionReason;
+import com.demo.authservice.observability.Rejections;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -27,52 +30,74 @@ import java.util.stream.Collectors;
  * </ul>
  *
  * <p>All handlers return a {@link ResponseEntity} containing a JSON body with
- * the status, error message, and any additional details.
+ * the status, error message, and any additional details. Every handled
+ * exception is also counted in {@code auth.rejections} by {@link RejectionReason}.
  */
 
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
+    private final Rejections rejections;
+
+    public GlobalExceptionHandler(Rejections rejections) {
+        this.rejections = rejections;
+    }
+
     // --------------------------
     //  CUSTOM BUSINESS EXCEPTIONS
     // --------------------------
 
     @ExceptionHandler(EmailAlreadyExistsException.class)
     public ResponseEntity<Map<String, Object>> handleEmailExists(EmailAlreadyExistsException ex) {
+        rejections.record(RejectionReason.EMAIL_EXISTS);
         return buildResponse(ex.getMessage(), HttpStatus.BAD_REQUEST);
     }
 
     @ExceptionHandler(ResourceNotFoundException.class)
     public ResponseEntity<Map<String, Object>> handleResourceNotFound(ResourceNotFoundException ex) {
+        rejections.record(RejectionReason.NOT_FOUND);
         return buildResponse(ex.getMessage(), HttpStatus.NOT_FOUND);
     }
 
     @ExceptionHandler(ResourceAlreadyExistsException.class)
     public ResponseEntity<Map<String, Object>> handleResourceAlreadyExists(ResourceAlreadyExistsException ex) {
+        rejections.record(RejectionReason.ALREADY_EXISTS);
         return buildResponse(ex.getMessage(), HttpStatus.CONFLICT);
     }
 
     @ExceptionHandler(InvalidCredentialsException.class)
     public ResponseEntity<Map<String, Object>> handleInvalidCredentials(InvalidCredentialsException ex) {
+        rejections.record(RejectionReason.INVALID_CREDENTIALS);
         return buildResponse(ex.getMessage(), HttpStatus.UNAUTHORIZED);
     }
 
     @ExceptionHandler(InvalidRequestException.class)
     public ResponseEntity<Map<String, Object>> handleInvalidRequest(InvalidRequestException ex) {
+        rejections.record(RejectionReason.INVALID_REQUEST);
         return buildResponse(ex.getMessage(), HttpStatus.BAD_REQUEST);
     }
 
     @ExceptionHandler(InvalidTokenException.class)
     public ResponseEntity<Map<String, Object>> handleInvalidToken(InvalidTokenException ex) {
+        rejections.record(RejectionReason.INVALID_TOKEN);
         return buildResponse(ex.getMessage(), HttpStatus.UNAUTHORIZED);
     }
 
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<Map<String, Object>> handleServiceOverloaded(ServiceOverloadedException ex) {
+        rejections.record(RejectionReason.OVERLOADED);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(buildBody("Service is overloaded, please retry", HttpStatus.SERVICE_UNAVAILABLE));
+    }
+
     // --------------------------
     //  SECURITY EXCEPTIONS
     // --------------------------
 
     @ExceptionHandler(AccessDeniedException.class)
     public ResponseEntity<Map<String, Object>> handleAccessDenied(AccessDeniedException ex) {
+        rejections.record(RejectionReason.ACCESS_DENIED);
         return buildResponse("Access denied. Please contact the administrator.", HttpStatus.FORBIDDEN);
     }
 
@@ -82,6 +107,7 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, Object>> handleValidationExceptions(MethodArgumentNotValidException ex) {
+        rejections.record(RejectionReason.VALIDATION);
 
         Map<String, String> errors = ex.getBindingResult()
                 .getFieldErrors()
@@ -106,6 +132,7 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, Object>> handleGenericException(Exception ex) {
+        rejections.record(RejectionReason.ERROR);
         return buildResponse("Something went wrong: " + ex.getMessage(),
                 HttpStatus.INTERNAL_SERVER_ERROR);
     }
@@ -115,10 +142,14 @@ public class GlobalExceptionHandler {
     // --------------------------
 
     private ResponseEntity<Map<String, Object>> buildResponse(String message, HttpStatus status) {
+        return new ResponseEntity<>(buildBody(message, status), status);
+    }
+
+    private Map<String, Object> buildBody(String message, HttpStatus status) {
         Map<String, Object> body = new HashMap<>();
         body.put("status", status.value());
         body.put("error", status.getReasonPhrase());
         body.put("message", message);
-        return new ResponseEntity<>(body, status);
+        return body;
     }
 }
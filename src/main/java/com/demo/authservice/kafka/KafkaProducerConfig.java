@@ -1,6 +1,11 @@
 package com.demo.authservice.kafka;
 
+import com.demo.authservice.event.BinaryUserEventSerializer;
+import com.demo.authservice.event.JsonUserEventSerializer;
+import com.demo.authservice.event.UserEventSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -20,7 +25,14 @@ import java.util.Map;
  *
  * <ul>
  *   <li>Reads the Kafka bootstrap server address from application properties.</li>
- *   <li>Configures String serializers for both keys and values.</li>
+ *   <li>Configures String keys and raw byte values; values are encoded before they
+ *       reach the producer (user events by the {@link UserEventSerializer}, which
+ *       is chosen with {@code auth.kafka.events.format}: {@code binary} or
+ *       {@code json}).</li>
+ *   <li>Applies the batching, linger, compression, acks and idempotence settings
+ *       from {@code auth.kafka.producer.*}, so each environment/profile can trade
+ *       latency for throughput and durability.</li>
+ *   <li>Bounds how long a send may block on metadata or a full buffer.</li>
  *   <li>Exposes a {@code KafkaTemplate} bean for sending messages.</li>
  * </ul>
  */
@@ -31,17 +43,63 @@ public class KafkaProducerConfig {
     @Value("${spring.kafka.bootstrap-servers}")
     private String kafkaUrl;
 
+    @Value("${auth.kafka.producer.acks:all}")
+    private String acks;
+
+    @Value("${auth.kafka.producer.idempotence:true}")
+    private boolean idempotence;
+
+    @Value("${auth.kafka.producer.linger-ms:5}")
+    private int lingerMs;
+
+    @Value("${auth.kafka.producer.batch-size:65536}")
+    private int batchSize;
+
+    @Value("${auth.kafka.producer.compression-type:lz4}")
+    private String compressionType;
+
+    @Value("${auth.kafka.producer.buffer-memory:33554432}")
+    private long bufferMemory;
+
+    @Value("${auth.kafka.producer.max-block-ms:5000}")
+    private long maxBlockMs;
+
+    @Value("${auth.kafka.producer.delivery-timeout-ms:30000}")
+    private int deliveryTimeoutMs;
+
+    @Value("${auth.kafka.events.format:binary}")
+    private String eventFormat;
+
+    @Bean
+    public UserEventSerializer userEventSerializer(ObjectMapper objectMapper) {
+        return switch (eventFormat) {
+            case BinaryUserEventSerializer.FORMAT -> new BinaryUserEventSerializer();
+            case JsonUserEventSerializer.FORMAT -> new JsonUserEventSerializer(objectMapper);
+            default -> throw new IllegalArgumentException("Unknown auth.kafka.events.format: " + eventFormat);
+        };
+    }
+
     @Bean
-    public ProducerFactory<String, String> producerFactory() {
+    public ProducerFactory<String, byte[]> producerFactory() {
         Map<String, Object> configProps = new HashMap<>();
         configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, kafkaUrl);
         configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        configProps.put(ProducerConfig.ACKS_CONFIG, acks);
+        configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, idempotence);
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        configProps.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
+        configProps.put(ProducerConfig.BUFFER_MEMORY_CONFIG, bufferMemory);
+        configProps.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, maxBlockMs);
+        configProps.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, deliveryTimeoutMs);
+        // Keeps per-partition ordering with idempotence enabled
+        configProps.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
         return new DefaultKafkaProducerFactory<>(configProps);
     }
 
     @Bean
-    public KafkaTemplate<String, String> kafkaTemplate() {
+    public KafkaTemplate<String, byte[]> kafkaTemplate() {
         return new KafkaTemplate<>(producerFactory());
     }
 }
@@ -1,8 +1,28 @@
 package com.demo.authservice.kafka;
 
+import com.demo.authservice.observability.AuthFlightEvents;
+import com.demo.authservice.observability.AuthPhaseEvent;
+import com.demo.authservice.observability.EventPublishEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.common.errors.RetriableException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
 /**
  * Service responsible for publishing messages to Kafka topics.
  *
@@ -11,20 +31,170 @@ import org.springframework.stereotype.Service;
  *
  * <ul>
  *   <li>Uses Spring’s {@code KafkaTemplate} for asynchronous message delivery.</li>
- *   <li>Provides a simple method to send string-based messages to any topic.</li>
+ *   <li>Provides simple methods to send encoded or UTF-8 string messages, optionally keyed, to any topic.</li>
+ *   <li>Limits the number of unacknowledged sends ({@code auth.kafka.producer.max-in-flight});
+ *       when the limit is reached the caller waits up to
+ *       {@code auth.kafka.producer.backpressure-timeout} and the send is then
+ *       rejected, instead of buffering without bound.</li>
+ *   <li>When the {@link SpillJournal} is enabled, messages that hit the in-flight
+ *       limit or fail with a retriable broker error are written to the journal
+ *       instead, and the returned future completes with {@code null}. While the
+ *       journal holds a backlog every new message goes there too, so replay
+ *       keeps them in order. Spilled messages are only as durable as the journal,
+ *       so callers that keep their own copy until the broker acknowledges it (the
+ *       outbox relay) use {@link #sendWithoutSpill}, which fails instead.</li>
+ *   <li>Records per-topic latency and outcome ({@code success}, {@code failure},
+ *       {@code rejected}, {@code spilled}) as the {@code auth.kafka.send} timer,
+ *       and the current in-flight count as {@code auth.kafka.in.flight}.</li>
+ *   <li>Emits an {@link EventPublishEvent} JFR event per send, with the topic.</li>
  * </ul>
  */
 
 @Service
 public class KafkaProducerService {
 
-    private final KafkaTemplate<String, String> kafkaTemplate;
+    private static final String SEND_TIMER = "auth.kafka.send";
+
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Semaphore inFlight;
+    private final int maxInFlight;
+    private final Duration backpressureTimeout;
+    private final SpillJournal spillJournal;
+    private final AuthFlightEvents flightEvents;
+    private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+
+    @Autowired
+    public KafkaProducerService(KafkaTemplate<String, byte[]> kafkaTemplate,
+                                MeterRegistry meterRegistry,
+                                @Value("${auth.kafka.producer.max-in-flight:10000}") int maxInFlight,
+                                @Value("${auth.kafka.producer.backpressure-timeout:2s}") Duration backpressureTimeout,
+                                ObjectProvider<SpillJournal> spillJournal,
+                                AuthFlightEvents flightEvents) {
+        this(kafkaTemplate, meterRegistry, maxInFlight, backpressureTimeout, spillJournal.getIfAvailable(), flightEvents);
+    }
 
-    public KafkaProducerService(KafkaTemplate<String, String> kafkaTemplate) {
+    KafkaProducerService(KafkaTemplate<String, byte[]> kafkaTemplate,
+                         MeterRegistry meterRegistry,
+                         int maxInFlight,
+                         Duration backpressureTimeout,
+                         SpillJournal spillJournal,
+                         AuthFlightEvents flightEvents) {
         this.kafkaTemplate = kafkaTemplate;
+        this.meterRegistry = meterRegistry;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.maxInFlight = maxInFlight;
+        this.backpressureTimeout = backpressureTimeout;
+        this.spillJournal = spillJournal;
+        this.flightEvents = flightEvents;
+
+        Gauge.builder("auth.kafka.in.flight", this, KafkaProducerService::inFlightCount)
+                .description("Kafka sends awaiting broker acknowledgement")
+                .register(meterRegistry);
+    }
+
+    public CompletableFuture<SendResult<String, byte[]>> sendMessage(String topic, String message) {
+        return sendMessage(topic, null, message);
+    }
+
+    public CompletableFuture<SendResult<String, byte[]>> sendMessage(String topic, String key, String message) {
+        return sendMessage(topic, key, message.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public CompletableFuture<SendResult<String, byte[]>> sendMessage(String topic, String key, byte[] message) {
+        return send(topic, key, message, spillJournal);
+    }
+
+    // The future only completes normally once the broker acknowledged the message
+    public CompletableFuture<SendResult<String, byte[]>> sendWithoutSpill(String topic, String key, byte[] message) {
+        return send(topic, key, message, null);
+    }
+
+    private CompletableFuture<SendResult<String, byte[]>> send(String topic, String key, byte[] message,
+                                                               SpillJournal journal) {
+        AuthPhaseEvent event = flightEvents.beginPublish(topic);
+        long start = System.nanoTime();
+
+        if (journal != null && journal.hasBacklog()) {
+            return spill(journal, topic, key, message, start, event);
+        }
+
+        if (!acquirePermit()) {
+            if (journal != null) {
+                return spill(journal, topic, key, message, start, event);
+            }
+            record(topic, "rejected", start, event);
+            return CompletableFuture.failedFuture(new IllegalStateException(
+                    "Kafka producer has " + maxInFlight + " sends in flight, rejecting message for " + topic));
+        }
+
+        CompletableFuture<SendResult<String, byte[]>> future;
+        try {
+            future = kafkaTemplate.send(topic, key, message);
+        } catch (RuntimeException e) {
+            inFlight.release();
+            if (journal != null && isRetriable(e)) {
+                return spill(journal, topic, key, message, start, event);
+            }
+            record(topic, "failure", start, event);
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return future.handle((result, ex) -> {
+            inFlight.release();
+            if (ex == null) {
+                record(topic, "success", start, event);
+                return result;
+            }
+            if (journal != null && isRetriable(ex) && journal.append(topic, key, message)) {
+                record(topic, "spilled", start, event);
+                return null;
+            }
+            record(topic, "failure", start, event);
+            throw ex instanceof CompletionException completion ? completion : new CompletionException(ex);
+        });
+    }
+
+    public int inFlightCount() {
+        return maxInFlight - inFlight.availablePermits();
+    }
+
+    private CompletableFuture<SendResult<String, byte[]>> spill(SpillJournal journal, String topic, String key,
+                                                                byte[] message, long start, AuthPhaseEvent event) {
+        if (journal.append(topic, key, message)) {
+            record(topic, "spilled", start, event);
+            return CompletableFuture.completedFuture(null);
+        }
+        record(topic, "rejected", start, event);
+        return CompletableFuture.failedFuture(new IllegalStateException(
+                "Kafka spill journal is full, rejecting message for " + topic));
+    }
+
+    private static boolean isRetriable(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RetriableException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean acquirePermit() {
+        try {
+            return inFlight.tryAcquire(backpressureTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
     }
 
-    public void sendMessage(String topic, String message) {
-        kafkaTemplate.send(topic, message);
+    private void record(String topic, String outcome, long startNanos, AuthPhaseEvent event) {
+        timers.computeIfAbsent(topic + '|' + outcome, k -> Timer.builder(SEND_TIMER)
+                        .description("Kafka send latency until broker acknowledgement")
+                        .tag("topic", topic)
+                        .tag("outcome", outcome)
+                        .register(meterRegistry))
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        flightEvents.commit(event, outcome);
     }
 }
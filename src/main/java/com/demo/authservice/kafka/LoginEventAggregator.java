@@ -0,0 +1,125 @@
+package com.demo.authservice.kafka;
+
+import com.demo.authservice.event.UserEvent;
+import com.demo.authservice.event.UserEventSerializer;
+import com.demo.authservice.event.UserEventType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Folds login events into one {@link UserEventType#LOGIN_SUMMARY} per user per window.
+ *
+ * <p>Logins are collected in a concurrent per-user map and published every
+ * {@code auth.kafka.login-aggregation.window-ms} (tumbling window) as a summary
+ * carrying the login count, first and last login time, latest roles and latest
+ * source IP. Pending windows are flushed on shutdown.</p>
+ *
+ * <ul>
+ *   <li>Enabled with {@code auth.kafka.login-aggregation.enabled=true}; when disabled
+ *       every login goes through the transactional outbox as before.</li>
+ *   <li>Summaries are sent straight through {@link KafkaProducerService}, so a crash
+ *       loses at most one window of logins (the spill journal still covers broker
+ *       outages).</li>
+ *   <li>Metrics: {@code auth.kafka.login-aggregation.logins},
+ *       {@code auth.kafka.login-aggregation.summaries} and
+ *       {@code auth.kafka.login-aggregation.pending} (users in the open window).</li>
+ * </ul>
+ */
+
+@Component
+@ConditionalOnProperty(name = "auth.kafka.login-aggregation.enabled", havingValue = "true")
+public class LoginEventAggregator {
+
+    private final KafkaProducerService kafkaProducer;
+    private final UserEventSerializer eventSerializer;
+    private final ConcurrentMap<Long, Window> windows = new ConcurrentHashMap<>();
+    private final Counter logins;
+    private final Counter summaries;
+
+    public LoginEventAggregator(KafkaProducerService kafkaProducer,
+                                UserEventSerializer eventSerializer,
+                                MeterRegistry meterRegistry) {
+        this.kafkaProducer = kafkaProducer;
+        this.eventSerializer = eventSerializer;
+        this.logins = meterRegistry.counter("auth.kafka.login-aggregation.logins");
+        this.summaries = meterRegistry.counter("auth.kafka.login-aggregation.summaries");
+
+        Gauge.builder("auth.kafka.login-aggregation.pending", windows, ConcurrentMap::size)
+                .description("Users with logins waiting for the current window to close")
+                .register(meterRegistry);
+    }
+
+    public void record(UserEvent login) {
+        // compute() is atomic per key, so the window is never updated while it is being flushed
+        windows.compute(login.userId(), (userId, window) -> {
+            if (window == null) {
+                return new Window(login);
+            }
+            window.add(login);
+            return window;
+        });
+        logins.increment();
+    }
+
+    @Scheduled(fixedRateString = "${auth.kafka.login-aggregation.window-ms:10000}")
+    public void flush() {
+        for (Long userId : windows.keySet()) {
+            Window window = windows.remove(userId);
+            if (window != null) {
+                UserEvent summary = window.toSummary(userId);
+                kafkaProducer.sendMessage(summary.type().topic(), String.valueOf(userId),
+                        eventSerializer.serialize(summary));
+                summaries.increment();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        flush();
+    }
+
+    // Mutated only inside ConcurrentHashMap.compute for its key
+    private static final class Window {
+
+        private final Instant first;
+        private Instant last;
+        private int count;
+        private String email;
+        private List<String> roles;
+        private String sourceIp;
+
+        Window(UserEvent login) {
+            this.first = login.timestamp();
+            this.last = login.timestamp();
+            this.count = 1;
+            this.email = login.email();
+            this.roles = login.roles();
+            this.sourceIp = login.sourceIp();
+        }
+
+        void add(UserEvent login) {
+            count++;
+            if (!login.timestamp().isBefore(last)) {
+                last = login.timestamp();
+                email = login.email();
+                roles = login.roles();
+                sourceIp = login.sourceIp();
+            }
+        }
+
+        UserEvent toSummary(Long userId) {
+            return new UserEvent(UserEventType.LOGIN_SUMMARY, userId, email, last, roles, sourceIp, count, first);
+        }
+    }
+}
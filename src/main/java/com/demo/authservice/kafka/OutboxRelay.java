@@ -0,0 +1,262 @@
+package com.demo.authservice.kafka;
+
+import com.demo.authservice.config.DataSourcePool;
+import com.demo.authservice.config.DataSourcePoolContext;
+import com.demo.authservice.entity.OutboxEventEntity;
+import com.demo.authservice.entity.OutboxRelayLeaseEntity;
+import com.demo.authservice.repository.OutboxEventRepository;
+import com.demo.authservice.repository.OutboxRelayLeaseRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.common.errors.ApiException;
+import org.apache.kafka.common.errors.RetriableException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background relay that publishes transactional outbox events to Kafka.
+ *
+ * <p>Polls unsent rows in batches (on the bulk connection pool), publishes them
+ * keyed by their message key and marks acknowledged rows as sent.</p>
+ *
+ * <ul>
+ *   <li>Only the replica holding the {@code outbox_relay_lease} row relays. The
+ *       lease is renewed on every poll and taken over by another replica once it
+ *       has not been renewed for {@code auth.outbox.relay.lease}, so events of one
+ *       key are never relayed by two nodes at once.</li>
+ *   <li>Events of one key are sent one after another, each only once the previous
+ *       one was acknowledged; events of different keys go out together. Once an
+ *       event of a key fails, later events of that key are not sent, so they are
+ *       retried after it in the next poll.</li>
+ *   <li>Delivery is at-least-once: a row is only marked sent after the broker
+ *       acknowledged it. Rows are never handed to the spill journal; while the
+ *       broker is down they simply stay in the outbox.</li>
+ *   <li>Every failed attempt is counted on the row with its error. A row the broker
+ *       refuses with a non-retriable error (record too large, topic authorization,
+ *       ...) for {@code auth.outbox.relay.max-attempts} attempts is parked: it is no
+ *       longer relayed, so it stops holding back its key and the rest of the outbox.
+ *       Parked rows are counted by {@code auth.outbox.parked} and kept until they are
+ *       requeued by clearing {@code parked_date}.</li>
+ *   <li>No transaction is open while waiting for the broker; the sent rows are
+ *       marked in a short transaction afterwards.</li>
+ *   <li>Sent rows are purged after {@code auth.outbox.retention}.</li>
+ * </ul>
+ */
+
+@Component
+@ConditionalOnProperty(name = "auth.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    static final String LEASE = "outbox-relay";
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final OutboxEventRepository outboxRepository;
+    private final OutboxRelayLeaseRepository leaseRepository;
+    private final KafkaProducerService kafkaProducer;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter parked;
+    private final int batchSize;
+    private final Duration sendTimeout;
+    private final int maxAttempts;
+    private final Duration lease;
+    private final Duration retention;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public OutboxRelay(OutboxEventRepository outboxRepository,
+                       OutboxRelayLeaseRepository leaseRepository,
+                       KafkaProducerService kafkaProducer,
+                       TransactionTemplate transactionTemplate,
+                       MeterRegistry meterRegistry,
+                       @Value("${auth.outbox.relay.batch-size:500}") int batchSize,
+                       @Value("${auth.outbox.relay.send-timeout:10s}") Duration sendTimeout,
+                       @Value("${auth.outbox.relay.max-attempts:5}") int maxAttempts,
+                       @Value("${auth.outbox.relay.lease:30s}") Duration lease,
+                       @Value("${auth.outbox.retention:1d}") Duration retention) {
+        this.outboxRepository = outboxRepository;
+        this.leaseRepository = leaseRepository;
+        this.kafkaProducer = kafkaProducer;
+        this.transactionTemplate = transactionTemplate;
+        this.parked = Counter.builder("auth.outbox.parked")
+                .description("Outbox events parked after repeated non-retriable publish failures")
+                .register(meterRegistry);
+        this.batchSize = batchSize;
+        this.sendTimeout = sendTimeout;
+        this.maxAttempts = maxAttempts;
+        this.lease = lease;
+        this.retention = retention;
+    }
+
+    @Scheduled(fixedDelayString = "${auth.outbox.relay.poll-interval-ms:200}")
+    public void relay() {
+        try (DataSourcePoolContext.Scope ignored = DataSourcePoolContext.use(DataSourcePool.BULK)) {
+            int relayed;
+            do {
+                relayed = relayBatch();
+            } while (relayed == batchSize);
+        } catch (RuntimeException e) {
+            log.warn("Outbox relay failed, will retry on next poll", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${auth.outbox.cleanup-interval-ms:3600000}")
+    public void purgeSent() {
+        try (DataSourcePoolContext.Scope ignored = DataSourcePoolContext.use(DataSourcePool.BULK)) {
+            LocalDateTime before = LocalDateTime.now(ZoneOffset.UTC).minus(retention);
+            transactionTemplate.executeWithoutResult(status -> outboxRepository.deleteSentBefore(before));
+        }
+    }
+
+    // Renews or takes over the lease; the lease row is created on first use if the migration did not
+    private boolean acquireLease() {
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        LocalDateTime until = now.plus(lease);
+        Integer acquired = transactionTemplate.execute(status -> leaseRepository.acquire(LEASE, nodeId, now, until));
+        if (acquired != null && acquired > 0) {
+            return true;
+        }
+        try {
+            return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                if (leaseRepository.existsById(LEASE)) {
+                    return false;
+                }
+                leaseRepository.saveAndFlush(OutboxRelayLeaseEntity.builder()
+                        .name(LEASE)
+                        .owner(nodeId)
+                        .lockedUntil(until)
+                        .build());
+                return true;
+            }));
+        } catch (DataIntegrityViolationException e) {
+            // Another replica created it first
+            return false;
+        }
+    }
+
+    // Returns the number of rows that were marked sent
+    private int relayBatch() {
+        if (!acquireLease()) {
+            return 0;
+        }
+        long leaseRenewed = System.nanoTime();
+
+        List<OutboxEventEntity> batch = outboxRepository.findUnsent(PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, Deque<OutboxEventEntity>> byKey = new LinkedHashMap<>();
+        for (OutboxEventEntity event : batch) {
+            byKey.computeIfAbsent(event.getMessageKey(), key -> new ArrayDeque<>()).add(event);
+        }
+
+        // Each round sends the oldest remaining event of every key, so the producer still batches across keys
+        List<Long> sentIds = new ArrayList<>(batch.size());
+        Map<OutboxEventEntity, Exception> failures = new LinkedHashMap<>();
+        while (!byKey.isEmpty() && !Thread.currentThread().isInterrupted()) {
+            // Long batches renew the lease half-way, and stop once another replica took it over
+            if (System.nanoTime() - leaseRenewed > lease.toNanos() / 2) {
+                if (!acquireLease()) {
+                    break;
+                }
+                leaseRenewed = System.nanoTime();
+            }
+            List<OutboxEventEntity> round = byKey.values().stream().map(Deque::peekFirst).toList();
+            List<CompletableFuture<?>> futures = new ArrayList<>(round.size());
+            for (OutboxEventEntity event : round) {
+                futures.add(kafkaProducer.sendWithoutSpill(event.getTopic(), event.getMessageKey(), event.getPayload()));
+            }
+
+            long deadline = System.nanoTime() + sendTimeout.toNanos();
+            for (int i = 0; i < round.size(); i++) {
+                OutboxEventEntity event = round.get(i);
+                try {
+                    futures.get(i).get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    sentIds.add(event.getId());
+                    Deque<OutboxEventEntity> pending = byKey.get(event.getMessageKey());
+                    pending.pollFirst();
+                    if (pending.isEmpty()) {
+                        byKey.remove(event.getMessageKey());
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                } catch (Exception e) {
+                    byKey.remove(event.getMessageKey());
+                    failures.put(event, e);
+                }
+            }
+        }
+
+        if (!sentIds.isEmpty()) {
+            LocalDateTime sentDate = LocalDateTime.now(ZoneOffset.UTC);
+            transactionTemplate.executeWithoutResult(status -> outboxRepository.markSent(sentIds, sentDate));
+        }
+        if (!failures.isEmpty()) {
+            recordFailures(failures);
+        }
+        return sentIds.size();
+    }
+
+    private void recordFailures(Map<OutboxEventEntity, Exception> failures) {
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        List<Long> parkedIds = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(status -> failures.forEach((event, e) -> {
+            int attempts = event.getAttempts() + 1;
+            if (attempts >= maxAttempts && isPermanent(e)) {
+                log.error("Parking outbox event {} to {} after {} failed attempts", event.getId(), event.getTopic(),
+                        attempts, e);
+                outboxRepository.recordFailure(event.getId(), describe(e), now);
+                parkedIds.add(event.getId());
+            } else {
+                log.warn("Failed to publish outbox event {} to {} (attempt {})", event.getId(), event.getTopic(),
+                        attempts, e);
+                outboxRepository.recordFailure(event.getId(), describe(e), null);
+            }
+        }));
+        parked.increment(parkedIds.size());
+    }
+
+    // Refused by the broker for a reason a retry will not fix; broker outages and local back-pressure are not
+    private static boolean isPermanent(Throwable ex) {
+        boolean refused = false;
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RetriableException) {
+                return false;
+            }
+            refused |= cause instanceof ApiException;
+        }
+        return refused;
+    }
+
+    private static String describe(Throwable ex) {
+        Throwable root = ex;
+        while (root.getCause() != null) {
+            root = root.getCause();
+        }
+        String error = root.getClass().getSimpleName() + ": " + root.getMessage();
+        return error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+}
@@ -0,0 +1,435 @@
+package com.demo.authservice.kafka;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Local append-only journal for Kafka messages that could not be handed to the
+ * broker (broker unreachable, producer buffer or in-flight limit exhausted).
+ *
+ * <p>The journal is a sequence of fixed-size, memory-mapped segment files in
+ * {@code auth.kafka.spill.directory}. Records are written as
+ * {@code [length][crc32][topic][key][value]}; a zero length marks the end of
+ * the written data. The {@link SpillJournalDrainer} replays records in order
+ * and advances a persisted read checkpoint; fully drained segments are
+ * deleted.</p>
+ *
+ * <ul>
+ *   <li>fsync policy ({@code auth.kafka.spill.fsync}): {@code ALWAYS} after every
+ *       append, {@code INTERVAL} every {@code auth.kafka.spill.fsync-interval-ms},
+ *       or {@code NEVER} (left to the OS).</li>
+ *   <li>A new segment is started once the current one is full; appends are
+ *       refused once {@code auth.kafka.spill.max-size} would be exceeded.</li>
+ *   <li>Metrics: {@code auth.kafka.spill.depth} (records waiting),
+ *       {@code auth.kafka.spill.bytes}, {@code auth.kafka.spill.appended},
+ *       {@code auth.kafka.spill.dropped} and {@code auth.kafka.spill.replayed}.</li>
+ * </ul>
+ */
+
+@Component
+@ConditionalOnProperty(name = "auth.kafka.spill.enabled", havingValue = "true")
+public class SpillJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(SpillJournal.class);
+
+    public enum FsyncPolicy {
+        ALWAYS,
+        INTERVAL,
+        NEVER
+    }
+
+    /**
+     * A journaled message and the journal position right after it.
+     */
+    public record SpilledMessage(String topic, String key, byte[] value, long segment, int nextOffset) {
+    }
+
+    private static final int HEADER_SIZE = 8;
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final long maxBytes;
+    private final FsyncPolicy fsyncPolicy;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final NavigableSet<Long> segments = new TreeSet<>();
+    // Mappings of full segments, reused by every drain until the segment is deleted
+    private final Map<Long, MappedByteBuffer> readBuffers = new HashMap<>();
+    // Changed only under the lock together with the positions, so hasBacklog() never reads 0 early
+    private final AtomicLong depth = new AtomicLong();
+
+    private final Counter appended;
+    private final Counter dropped;
+    private final Counter replayed;
+
+    // guarded by lock
+    private long writeSegment;
+    private int writeOffset;
+    private MappedByteBuffer writeBuffer;
+    private long readSegment;
+    private int readOffset;
+    private boolean dirty;
+
+    public SpillJournal(@Value("${auth.kafka.spill.directory:${java.io.tmpdir}/auth-service/spill}") String directory,
+                        @Value("${auth.kafka.spill.segment-size:64MB}") DataSize segmentSize,
+                        @Value("${auth.kafka.spill.max-size:1GB}") DataSize maxSize,
+                        @Value("${auth.kafka.spill.fsync:INTERVAL}") FsyncPolicy fsyncPolicy,
+                        MeterRegistry meterRegistry) throws IOException {
+        this.directory = Paths.get(directory);
+        this.segmentSize = (int) Math.min(segmentSize.toBytes(), Integer.MAX_VALUE);
+        this.maxBytes = maxSize.toBytes();
+        this.fsyncPolicy = fsyncPolicy;
+
+        Files.createDirectories(this.directory);
+        recover();
+
+        Gauge.builder("auth.kafka.spill.depth", depth, AtomicLong::get)
+                .description("Messages waiting in the spill journal")
+                .register(meterRegistry);
+        Gauge.builder("auth.kafka.spill.bytes", this, SpillJournal::sizeOnDisk)
+                .description("Disk space allocated by spill journal segments")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.appended = meterRegistry.counter("auth.kafka.spill.appended");
+        this.dropped = meterRegistry.counter("auth.kafka.spill.dropped");
+        this.replayed = meterRegistry.counter("auth.kafka.spill.replayed");
+    }
+
+    public boolean hasBacklog() {
+        return depth.get() > 0;
+    }
+
+    public long depth() {
+        return depth.get();
+    }
+
+    /**
+     * Appends a message to the journal.
+     *
+     * @return {@code false} if the journal is full and the message was dropped
+     */
+    public boolean append(String topic, String key, byte[] value) {
+        byte[] body = encode(topic, key, value);
+        int recordSize = HEADER_SIZE + body.length;
+
+        lock.lock();
+        try {
+            if (writeOffset + recordSize > segmentSize) {
+                if (recordSize > segmentSize || sizeOnDisk() + segmentSize > maxBytes) {
+                    dropped.increment();
+                    return false;
+                }
+                rotate();
+            }
+
+            CRC32 crc = new CRC32();
+            crc.update(body);
+
+            // Length is written last, so a torn write is never visible as a record
+            writeBuffer.put(writeOffset + HEADER_SIZE, body);
+            writeBuffer.putInt(writeOffset + 4, (int) crc.getValue());
+            writeBuffer.putInt(writeOffset, body.length);
+            writeOffset += recordSize;
+            depth.incrementAndGet();
+
+            if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+                writeBuffer.force();
+            } else {
+                dirty = true;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        appended.increment();
+        return true;
+    }
+
+    /**
+     * Reads up to {@code max} messages from the read position without consuming them.
+     */
+    public List<SpilledMessage> peek(int max) {
+        List<SpilledMessage> messages = new ArrayList<>(Math.min(max, 1024));
+
+        lock.lock();
+        try {
+            long segment = readSegment;
+            int offset = readOffset;
+            ByteBuffer buffer = bufferFor(segment);
+
+            while (messages.size() < max) {
+                SpilledMessage message = decode(buffer, segment, offset);
+                if (message != null) {
+                    messages.add(message);
+                    offset = message.nextOffset();
+                    continue;
+                }
+                Long next = segments.higher(segment);
+                if (segment == writeSegment || next == null) {
+                    break;
+                }
+                segment = next;
+                offset = 0;
+                buffer = bufferFor(segment);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return messages;
+    }
+
+    /**
+     * Marks everything up to and including {@code last} as delivered and persists
+     * the new read position. {@code count} is the number of messages being committed.
+     */
+    public void commit(SpilledMessage last, int count) {
+        lock.lock();
+        try {
+            readSegment = last.segment();
+            readOffset = last.nextOffset();
+            depth.addAndGet(-count);
+
+            while (!segments.isEmpty() && segments.first() < readSegment) {
+                deleteSegment(segments.pollFirst());
+            }
+            writeCheckpoint();
+        } finally {
+            lock.unlock();
+        }
+
+        replayed.increment(count);
+    }
+
+    @Scheduled(fixedDelayString = "${auth.kafka.spill.fsync-interval-ms:1000}")
+    public void flush() {
+        if (fsyncPolicy != FsyncPolicy.INTERVAL) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (dirty) {
+                writeBuffer.force();
+                dirty = false;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        lock.lock();
+        try {
+            if (fsyncPolicy != FsyncPolicy.NEVER) {
+                writeBuffer.force();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long sizeOnDisk() {
+        return (long) segments.size() * segmentSize;
+    }
+
+    // --------------------------
+    //  RECOVERY
+    // --------------------------
+
+    private void recover() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())))
+                    .forEach(segments::add);
+        }
+
+        if (segments.isEmpty()) {
+            segments.add(0L);
+        }
+
+        readSegment = segments.first();
+        readOffset = 0;
+        Path checkpoint = directory.resolve(CHECKPOINT_FILE);
+        if (Files.exists(checkpoint)) {
+            ByteBuffer position = ByteBuffer.wrap(Files.readAllBytes(checkpoint));
+            long checkpointSegment = position.getLong();
+            if (segments.contains(checkpointSegment)) {
+                readSegment = checkpointSegment;
+                readOffset = position.getInt();
+            }
+        }
+        while (segments.first() < readSegment) {
+            deleteSegment(segments.pollFirst());
+        }
+
+        writeSegment = segments.last();
+        writeBuffer = map(writeSegment);
+
+        // Count pending records and find the end of the written data
+        long pending = 0;
+        for (long segment : segments) {
+            ByteBuffer buffer = bufferFor(segment);
+            int offset = segment == readSegment ? readOffset : 0;
+            SpilledMessage message;
+            while ((message = decode(buffer, segment, offset)) != null) {
+                pending++;
+                offset = message.nextOffset();
+            }
+            if (segment == writeSegment) {
+                writeOffset = offset;
+                // Clear a torn tail so later appends cannot be confused with it
+                for (int i = offset; i < segmentSize; i++) {
+                    writeBuffer.put(i, (byte) 0);
+                }
+            }
+        }
+        depth.set(pending);
+
+        if (pending > 0) {
+            log.info("Spill journal recovered {} undelivered messages from {}", pending, directory);
+        }
+    }
+
+    // --------------------------
+    //  SEGMENTS
+    // --------------------------
+
+    private void rotate() {
+        writeBuffer.force();
+        readBuffers.put(writeSegment, writeBuffer);
+        writeSegment++;
+        writeOffset = 0;
+        writeBuffer = map(writeSegment);
+        segments.add(writeSegment);
+        dirty = false;
+    }
+
+    private ByteBuffer bufferFor(long segment) {
+        return segment == writeSegment ? writeBuffer : readBuffers.computeIfAbsent(segment, this::map);
+    }
+
+    private MappedByteBuffer map(long segment) {
+        try (FileChannel channel = FileChannel.open(segmentPath(segment),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot map spill journal segment " + segment, e);
+        }
+    }
+
+    // The mapping itself is released once the buffer is garbage collected
+    private void deleteSegment(long segment) {
+        readBuffers.remove(segment);
+        try {
+            Files.deleteIfExists(segmentPath(segment));
+        } catch (IOException e) {
+            log.warn("Cannot delete drained spill journal segment {}", segment, e);
+        }
+    }
+
+    private void writeCheckpoint() {
+        ByteBuffer position = ByteBuffer.allocate(Long.BYTES + Integer.BYTES)
+                .putLong(readSegment)
+                .putInt(readOffset);
+        try {
+            Path temp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+            Files.write(temp, position.array());
+            Files.move(temp, directory.resolve(CHECKPOINT_FILE),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // Worst case the messages since the last checkpoint are replayed again
+            log.warn("Cannot persist spill journal checkpoint", e);
+        }
+    }
+
+    private Path segmentPath(long segment) {
+        return directory.resolve(String.format("%020d%s", segment, SEGMENT_SUFFIX));
+    }
+
+    // --------------------------
+    //  RECORD FORMAT
+    // --------------------------
+
+    private static byte[] encode(String topic, String key, byte[] value) {
+        byte[] topicBytes = topic.getBytes(StandardCharsets.UTF_8);
+        byte[] keyBytes = key != null ? key.getBytes(StandardCharsets.UTF_8) : null;
+
+        ByteBuffer body = ByteBuffer.allocate(3 * Integer.BYTES + topicBytes.length
+                + (keyBytes != null ? keyBytes.length : 0) + value.length);
+        body.putInt(topicBytes.length).put(topicBytes);
+        body.putInt(keyBytes != null ? keyBytes.length : -1);
+        if (keyBytes != null) {
+            body.put(keyBytes);
+        }
+        body.putInt(value.length).put(value);
+        return body.array();
+    }
+
+    // Returns null at the end of the written data or at a corrupt record
+    private SpilledMessage decode(ByteBuffer buffer, long segment, int offset) {
+        if (offset + HEADER_SIZE > segmentSize) {
+            return null;
+        }
+        int length = buffer.getInt(offset);
+        if (length <= 0 || offset + HEADER_SIZE + length > segmentSize) {
+            return null;
+        }
+
+        byte[] body = new byte[length];
+        buffer.get(offset + HEADER_SIZE, body);
+
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        if ((int) crc.getValue() != buffer.getInt(offset + 4)) {
+            log.warn("Corrupt record in spill journal segment {} at offset {}", segment, offset);
+            return null;
+        }
+
+        ByteBuffer in = ByteBuffer.wrap(body);
+        String topic = readString(in, in.getInt());
+        int keyLength = in.getInt();
+        String key = keyLength >= 0 ? readString(in, keyLength) : null;
+        byte[] value = new byte[in.getInt()];
+        in.get(value);
+        return new SpilledMessage(topic, key, value, segment, offset + HEADER_SIZE + length);
+    }
+
+    private static String readString(ByteBuffer in, int length) {
+        String value = new String(in.array(), in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+}
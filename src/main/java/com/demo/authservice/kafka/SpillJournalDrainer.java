@@ -0,0 +1,90 @@
+package com.demo.authservice.kafka;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays messages from the {@link SpillJournal} to Kafka once the broker is reachable again.
+ *
+ * <p>Each run sends up to {@code auth.kafka.spill.drain-batch-size} journaled
+ * messages in journal order and waits for their acknowledgements. The journal
+ * is advanced only past the longest acknowledged prefix, so a broker that is
+ * still down leaves the backlog untouched and order is preserved on the next run.</p>
+ *
+ * <p>Sends go straight to {@link KafkaTemplate}, bypassing
+ * {@link KafkaProducerService}, so replayed messages are never journaled twice.</p>
+ */
+@Component
+@ConditionalOnProperty(name = "auth.kafka.spill.enabled", havingValue = "true")
+public class SpillJournalDrainer {
+
+    private static final Logger log = LoggerFactory.getLogger(SpillJournalDrainer.class);
+
+    private final SpillJournal journal;
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final int batchSize;
+    private final Duration sendTimeout;
+
+    public SpillJournalDrainer(SpillJournal journal,
+                               KafkaTemplate<String, byte[]> kafkaTemplate,
+                               @Value("${auth.kafka.spill.drain-batch-size:1000}") int batchSize,
+                               @Value("${auth.kafka.spill.send-timeout:10s}") Duration sendTimeout) {
+        this.journal = journal;
+        this.kafkaTemplate = kafkaTemplate;
+        this.batchSize = batchSize;
+        this.sendTimeout = sendTimeout;
+    }
+
+    @Scheduled(fixedDelayString = "${auth.kafka.spill.drain-interval-ms:1000}")
+    public void drain() {
+        List<SpillJournal.SpilledMessage> batch;
+        while (!(batch = journal.peek(batchSize)).isEmpty()) {
+            int delivered = replay(batch);
+            if (delivered > 0) {
+                journal.commit(batch.get(delivered - 1), delivered);
+            }
+            if (delivered < batch.size()) {
+                return;
+            }
+        }
+    }
+
+    // Returns the number of messages acknowledged from the start of the batch
+    private int replay(List<SpillJournal.SpilledMessage> batch) {
+        List<CompletableFuture<?>> futures = batch.stream()
+                .<CompletableFuture<?>>map(message -> {
+                    try {
+                        return kafkaTemplate.send(message.topic(), message.key(), message.value());
+                    } catch (RuntimeException e) {
+                        return CompletableFuture.failedFuture(e);
+                    }
+                })
+                .toList();
+
+        long deadline = System.nanoTime() + sendTimeout.toNanos();
+        int delivered = 0;
+        for (CompletableFuture<?> future : futures) {
+            try {
+                future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                delivered++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.warn("Spill journal replay paused after {} messages: {}", delivered, e.getMessage());
+                break;
+            }
+        }
+        return delivered;
+    }
+}
@@ -0,0 +1,124 @@
+package com.demo.authservice.limit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit that adapts to observed latency (TCP Vegas style).
+ *
+ * <p>Latency is averaged over windows of {@code windowSize} completed requests
+ * and compared with the lowest window latency seen ({@code rttNoLoad}). The
+ * estimated queue is {@code limit * (1 - rttNoLoad / rtt)}: requests that wait
+ * instead of run. The limit grows while that queue is small and shrinks when
+ * it gets long, so for CPU-bound work it settles a little above the number of
+ * cores that actually serve it.</p>
+ *
+ * <ul>
+ *   <li>The limit only grows when at least half of it was in use during the
+ *       window, so an idle service does not inflate it.</li>
+ *   <li>Every {@code probeInterval} windows {@code rttNoLoad} is re-learned
+ *       from the current window, so a permanently slower dependency is
+ *       eventually accepted as the new baseline.</li>
+ * </ul>
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final int windowSize;
+    private final int probeInterval;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile int limit;
+
+    // Window state, guarded by lock
+    private final ReentrantLock lock = new ReentrantLock();
+    private long windowRttSum;
+    private int windowSamples;
+    private int windowMaxInFlight;
+    private int windowsSinceProbe;
+    private double rttNoLoad;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, int windowSize, int probeInterval) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.windowSize = windowSize;
+        this.probeInterval = probeInterval;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * @return {@code false} if the limit is reached and the request must be rejected
+     */
+    public boolean tryAcquire() {
+        if (inFlight.incrementAndGet() > limit) {
+            inFlight.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Releases a permit obtained from {@link #tryAcquire()} and records the request latency.
+     */
+    public void release(long rttNanos) {
+        int observedInFlight = inFlight.getAndDecrement();
+        onSample(rttNanos, observedInFlight);
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    void onSample(long rttNanos, int observedInFlight) {
+        lock.lock();
+        try {
+            windowRttSum += rttNanos;
+            windowSamples++;
+            windowMaxInFlight = Math.max(windowMaxInFlight, observedInFlight);
+            if (windowSamples < windowSize) {
+                return;
+            }
+
+            double rtt = (double) windowRttSum / windowSamples;
+            boolean appLimited = windowMaxInFlight * 2 < limit;
+            windowRttSum = 0;
+            windowSamples = 0;
+            windowMaxInFlight = 0;
+
+            if (rttNoLoad == 0 || rtt < rttNoLoad || ++windowsSinceProbe >= probeInterval) {
+                rttNoLoad = rtt;
+                windowsSinceProbe = 0;
+                return;
+            }
+
+            limit = nextLimit(rtt, appLimited);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int nextLimit(double rtt, boolean appLimited) {
+        int current = limit;
+        int log10 = Math.max(1, (int) Math.ceil(Math.log10(current)));
+        int alpha = 3 * log10;
+        int beta = 6 * log10;
+        double queue = Math.ceil(current * (1 - rttNoLoad / rtt));
+
+        int next;
+        if (queue <= log10) {
+            next = appLimited ? current : current + beta;
+        } else if (queue < alpha) {
+            next = appLimited ? current : current + log10;
+        } else if (queue > beta) {
+            next = current - log10;
+        } else {
+            next = current;
+        }
+        return Math.max(minLimit, Math.min(maxLimit, next));
+    }
+}
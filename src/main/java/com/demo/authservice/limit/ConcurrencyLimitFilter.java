@@ -0,0 +1,72 @@
+package com.demo.authservice.limit;
+
+import com.demo.authservice.constants.AuthEndpoints;
+import com.demo.authservice.observability.RejectionReason;
+import com.demo.authservice.observability.Rejections;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Servlet filter that sheds load on the BCrypt-bound endpoints with an
+ * {@link AdaptiveConcurrencyLimit}.
+ *
+ * <p>Registered for {@link AuthEndpoints#LOGIN} and {@link AuthEndpoints#REGISTER}
+ * ahead of Spring Security, so a rejected request costs almost nothing. Requests
+ * over the limit get an immediate {@code 503 Service Unavailable} with a JSON
+ * error message and {@code Retry-After: 1}.</p>
+ *
+ * <p>Metrics: {@code auth.limiter.limit}, {@code auth.limiter.in.flight} and
+ * {@code auth.limiter.rejected}; rejections are also counted in
+ * {@code auth.rejections} as {@link RejectionReason#OVERLOADED}.</p>
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final AdaptiveConcurrencyLimit limit;
+    private final Counter rejected;
+    private final Rejections rejections;
+
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimit limit, MeterRegistry meterRegistry, Rejections rejections) {
+        this.limit = limit;
+        this.rejections = rejections;
+        this.rejected = Counter.builder("auth.limiter.rejected")
+                .description("Requests rejected because the concurrency limit was reached")
+                .register(meterRegistry);
+
+        Gauge.builder("auth.limiter.limit", limit, AdaptiveConcurrencyLimit::limit)
+                .description("Current adaptive concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder("auth.limiter.in.flight", limit, AdaptiveConcurrencyLimit::inFlight)
+                .description("Requests currently admitted by the concurrency limit")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        if (!limit.tryAcquire()) {
+            rejected.increment();
+            rejections.record(RejectionReason.OVERLOADED);
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader("Retry-After", "1");
+            response.setContentType(AuthEndpoints.CONTENT_TYPE);
+            response.getWriter().write("{\"error\": \"Service is overloaded, please retry\"}");
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            limit.release(System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.demo.authservice.mapper;
+
+import com.demo.authservice.entity.UserImportJobEntity;
+import com.demo.authservice.model.UserImportJobResponse;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "spring")
+public interface UserImportJobMapper {
+
+    UserImportJobResponse toDto(UserImportJobEntity job);
+}
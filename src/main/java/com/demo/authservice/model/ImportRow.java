@@ -0,0 +1,12 @@
+package com.demo.authservice.model;
+
+/**
+ * One data row of an import CSV. Missing columns are {@code null}.
+ *
+ * @param rowNumber      1-based data row number (the header is not counted)
+ * @param passwordFormat {@code plain}, {@code bcrypt} or a {@link com.demo.authservice.security.LegacyPasswordDigest} id
+ * @param roles          role names separated by {@code ;}
+ */
+public record ImportRow(long rowNumber, String username, String email, String password,
+                        String passwordFormat, String roles) {
+}
@@ -0,0 +1,38 @@
+package com.demo.authservice.model;
+
+import com.demo.authservice.exception.InvalidRequestException;
+
+import java.util.Locale;
+
+/**
+ * Output formats of the admin user export.
+ */
+public enum UserExportFormat {
+
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    UserExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    public static UserExportFormat from(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Unsupported export format: " + value + " (use ndjson or csv)");
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.demo.authservice.model;
+
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class UserImportJobResponse {
+    private String id;
+    private UserImportStatus status;
+    private long rowsProcessed;
+    private long rowsImported;
+    private long rowsDuplicate;
+    private long rowsInvalid;
+    private String failureReason;
+    private LocalDateTime createdDate;
+    private LocalDateTime modifiedDate;
+}
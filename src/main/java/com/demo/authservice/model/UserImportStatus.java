@@ -0,0 +1,20 @@
+package com.demo.authservice.model;
+
+/**
+ * Lifecycle of a user import job.
+ *
+ * <ul>
+ *   <li>{@link #QUEUED} - uploaded, waiting for the import thread.</li>
+ *   <li>{@link #RUNNING} - rows are being imported.</li>
+ *   <li>{@link #COMPLETED} - every row was imported, skipped as a duplicate or reported as invalid.</li>
+ *   <li>{@link #FAILED} - stopped by an error; can be resumed from its checkpoint.</li>
+ *   <li>{@link #INTERRUPTED} - stopped by a shutdown; can be resumed from its checkpoint.</li>
+ * </ul>
+ */
+public enum UserImportStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    INTERRUPTED
+}
@@ -0,0 +1,77 @@
+package com.demo.authservice.observability;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Emits the auth phase JFR events ({@link TokenVerifyEvent}, {@link PrincipalLoadEvent},
+ * {@link PasswordHashEvent}, {@link EventPublishEvent}).
+ *
+ * <p>With {@code auth.jfr.enabled=false} no event objects are created at all. When
+ * enabled but no recording includes an event type, {@code begin}/{@code commit}
+ * reduce to an {@code isEnabled()} check.</p>
+ */
+
+@Component
+public class AuthFlightEvents {
+
+    private final boolean enabled;
+
+    public AuthFlightEvents(@Value("${auth.jfr.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts the event for {@code phase}, or returns {@code null} when the phase
+     * has no event type or nothing would record it.
+     */
+    public AuthPhaseEvent begin(AuthPhase phase) {
+        if (!enabled) {
+            return null;
+        }
+        AuthPhaseEvent event = switch (phase) {
+            case TOKEN_VERIFY -> new TokenVerifyEvent();
+            case PRINCIPAL_LOAD -> new PrincipalLoadEvent();
+            case PASSWORD_HASH, PASSWORD_VERIFY -> new PasswordHashEvent();
+            case EVENT_PUBLISH -> new EventPublishEvent();
+            default -> null;
+        };
+        return start(event, phase);
+    }
+
+    /**
+     * Starts an {@link EventPublishEvent} for a Kafka send to {@code topic}.
+     */
+    public AuthPhaseEvent beginPublish(String topic) {
+        if (!enabled) {
+            return null;
+        }
+        EventPublishEvent event = new EventPublishEvent();
+        event.topic = topic;
+        return start(event, AuthPhase.EVENT_PUBLISH);
+    }
+
+    public void commit(AuthPhaseEvent event, String outcome) {
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.outcome = outcome;
+            event.commit();
+        }
+    }
+
+    private static AuthPhaseEvent start(AuthPhaseEvent event, AuthPhase phase) {
+        if (event == null || !event.isEnabled()) {
+            return null;
+        }
+        event.phase = phase.tag();
+        event.begin();
+        return event;
+    }
+}
@@ -0,0 +1,29 @@
+package com.demo.authservice.observability;
+
+/**
+ * Phases of authentication work that are timed individually.
+ *
+ * <p>{@link #tag()} is the value of the {@code phase} tag on the
+ * {@code auth.phase} timer.</p>
+ */
+public enum AuthPhase {
+
+    TOKEN_ISSUE("token_issue"),
+    TOKEN_VERIFY("token_verify"),
+    PRINCIPAL_LOAD("principal_load"),
+    PASSWORD_HASH("password_hash"),
+    PASSWORD_VERIFY("password_verify"),
+    DB_READ("db_read"),
+    DB_WRITE("db_write"),
+    EVENT_PUBLISH("event_publish");
+
+    private final String tag;
+
+    AuthPhase(String tag) {
+        this.tag = tag;
+    }
+
+    public String tag() {
+        return tag;
+    }
+}
@@ -0,0 +1,17 @@
+package com.demo.authservice.observability;
+
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+
+/**
+ * Common fields of the auth phase JFR events. The event duration is the phase
+ * duration; JFR drops events shorter than the type's threshold.
+ */
+public abstract class AuthPhaseEvent extends Event {
+
+    @Label("Phase")
+    String phase;
+
+    @Label("Outcome")
+    String outcome;
+}
@@ -0,0 +1,20 @@
+package com.demo.authservice.observability;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("com.demo.authservice.EventPublish")
+@Label("Event Publish")
+@Category("Auth Service")
+@Description("User event written to the outbox, or sent to Kafka until acknowledged")
+@Threshold("5 ms")
+@StackTrace(false)
+public class EventPublishEvent extends AuthPhaseEvent {
+
+    @Label("Topic")
+    String topic;
+}
@@ -0,0 +1,173 @@
+package com.demo.authservice.observability;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Actuator endpoint ({@code /actuator/jfr}) for a continuous JFR recording
+ * that includes the auth phase events.
+ *
+ * <ul>
+ *   <li>{@code POST} starts a recording with the JDK {@code default} settings
+ *       (low overhead) plus the auth events at the configured
+ *       {@code auth.jfr.threshold.*} values; an optional {@code maxAge} overrides
+ *       {@code auth.jfr.max-age}. A running recording is replaced.</li>
+ *   <li>{@code GET} dumps the recording so far as a {@code .jfr} file. Every dump
+ *       goes to its own file in {@code auth.jfr.directory}, deleted once it has been
+ *       streamed, so concurrent downloads do not overwrite each other.</li>
+ *   <li>{@code DELETE} stops and discards it.</li>
+ * </ul>
+ */
+
+@Component
+@Endpoint(id = "jfr")
+@ConditionalOnProperty(name = "auth.jfr.enabled", havingValue = "true", matchIfMissing = true)
+public class FlightRecordingEndpoint {
+
+    private static final Logger log = LoggerFactory.getLogger(FlightRecordingEndpoint.class);
+    private static final String RECORDING_NAME = "auth-service";
+
+    private final Path dumpDirectory;
+    private final Duration defaultMaxAge;
+    private final DataSize maxSize;
+    private final Map<Class<? extends AuthPhaseEvent>, Duration> thresholds = new LinkedHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private Recording recording;
+
+    public FlightRecordingEndpoint(@Value("${auth.jfr.directory:${java.io.tmpdir}/auth-service/jfr}") String directory,
+                                   @Value("${auth.jfr.max-age:30m}") Duration defaultMaxAge,
+                                   @Value("${auth.jfr.max-size:250MB}") DataSize maxSize,
+                                   @Value("${auth.jfr.threshold.token-verify:1ms}") Duration tokenVerify,
+                                   @Value("${auth.jfr.threshold.principal-load:2ms}") Duration principalLoad,
+                                   @Value("${auth.jfr.threshold.password-hash:0ms}") Duration passwordHash,
+                                   @Value("${auth.jfr.threshold.event-publish:5ms}") Duration eventPublish) {
+        this.dumpDirectory = Paths.get(directory);
+        this.defaultMaxAge = defaultMaxAge;
+        this.maxSize = maxSize;
+        thresholds.put(TokenVerifyEvent.class, tokenVerify);
+        thresholds.put(PrincipalLoadEvent.class, principalLoad);
+        thresholds.put(PasswordHashEvent.class, passwordHash);
+        thresholds.put(EventPublishEvent.class, eventPublish);
+    }
+
+    @WriteOperation
+    public Map<String, Object> start(@Nullable Duration maxAge) {
+        lock.lock();
+        try {
+            closeRecording();
+
+            Recording started = new Recording(Configuration.getConfiguration("default"));
+            started.setName(RECORDING_NAME);
+            started.setToDisk(true);
+            started.setMaxAge(maxAge != null ? maxAge : defaultMaxAge);
+            started.setMaxSize(maxSize.toBytes());
+            thresholds.forEach((type, threshold) -> started.enable(type).withThreshold(threshold));
+            started.start();
+
+            recording = started;
+            log.info("Started JFR recording {} (max age {})", RECORDING_NAME, started.getMaxAge());
+            return status(started);
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("Could not load the default JFR configuration", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> dump() {
+        lock.lock();
+        try {
+            if (recording == null) {
+                return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+            }
+            Files.createDirectories(dumpDirectory);
+            Path dumpFile = Files.createTempFile(dumpDirectory, RECORDING_NAME + "-", ".jfr");
+            try {
+                recording.dump(dumpFile);
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(dumpFile);
+                throw e;
+            }
+            return new WebEndpointResponse<>(new DumpResource(dumpFile));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not dump JFR recording to " + dumpDirectory, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @DeleteOperation
+    public void stop() {
+        lock.lock();
+        try {
+            closeRecording();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        stop();
+    }
+
+    private void closeRecording() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+            log.info("Stopped JFR recording {}", RECORDING_NAME);
+        }
+    }
+
+    private static Map<String, Object> status(Recording recording) {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("name", recording.getName());
+        status.put("state", recording.getState().name());
+        status.put("maxAge", recording.getMaxAge().toString());
+        status.put("maxSize", recording.getMaxSize());
+        return status;
+    }
+
+    // Streamed after the lock is released; the file is removed when the response stream is closed
+    private static final class DumpResource extends FileSystemResource {
+
+        DumpResource(Path file) {
+            super(file);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return Files.newInputStream(getFile().toPath(), StandardOpenOption.DELETE_ON_CLOSE);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.demo.authservice.observability;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("com.demo.authservice.PasswordHash")
+@Label("Password Hash")
+@Category("Auth Service")
+@Description("BCrypt hashing or verification of a password")
+@Threshold("0 ms")
+@StackTrace(false)
+public class PasswordHashEvent extends AuthPhaseEvent {
+}
@@ -0,0 +1,100 @@
+package com.demo.authservice.observability;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Times auth hot-path phases as {@code auth.phase}, tagged {@code phase}
+ * ({@link AuthPhase#tag()}) and {@code outcome} ({@code success}/{@code failure}).
+ * Whole service calls are timed with {@code @Timed("auth.operation")} instead.
+ *
+ * <p>Percentile histograms for all {@code auth.*} meters are enabled in
+ * {@code application.properties}. A failure is any exception escaping the
+ * timed work; it is rethrown unchanged.</p>
+ *
+ * <p>Phases with a JFR event type are also emitted through {@link AuthFlightEvents},
+ * and every phase is added to the request's {@link ServerTimingRecorder} when
+ * {@code Server-Timing} is enabled. Work run through {@link #untimed(Runnable)}
+ * (startup warm-up) is left out of the timers.</p>
+ */
+
+@Component
+public class PhaseTracker {
+
+    private static final String PHASE_TIMER = "auth.phase";
+
+    // Set on threads running synthetic work that must not skew the latency histograms
+    private static final ThreadLocal<Boolean> UNTIMED = new ThreadLocal<>();
+
+    private final MeterRegistry meterRegistry;
+    private final AuthFlightEvents flightEvents;
+    private final Map<AuthPhase, Timer> phaseSuccess = new EnumMap<>(AuthPhase.class);
+    private final Map<AuthPhase, Timer> phaseFailure = new EnumMap<>(AuthPhase.class);
+
+    public PhaseTracker(MeterRegistry meterRegistry, AuthFlightEvents flightEvents) {
+        this.meterRegistry = meterRegistry;
+        this.flightEvents = flightEvents;
+        for (AuthPhase phase : AuthPhase.values()) {
+            phaseSuccess.put(phase, phaseTimer(phase, "success"));
+            phaseFailure.put(phase, phaseTimer(phase, "failure"));
+        }
+    }
+
+    public <T> T track(AuthPhase phase, Supplier<T> work) {
+        AuthPhaseEvent event = flightEvents.begin(phase);
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            T result = work.get();
+            success = true;
+            return result;
+        } finally {
+            record(phase, System.nanoTime() - start, success);
+            flightEvents.commit(event, success ? "success" : "failure");
+        }
+    }
+
+    public void track(AuthPhase phase, Runnable work) {
+        track(phase, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs {@code work} on this thread without recording its phases in {@code auth.phase}.
+     */
+    public void untimed(Runnable work) {
+        UNTIMED.set(Boolean.TRUE);
+        try {
+            work.run();
+        } finally {
+            UNTIMED.remove();
+        }
+    }
+
+    private void record(AuthPhase phase, long nanos, boolean success) {
+        if (UNTIMED.get() != null) {
+            return;
+        }
+        (success ? phaseSuccess : phaseFailure).get(phase).record(nanos, TimeUnit.NANOSECONDS);
+        ServerTimingRecorder recorder = ServerTimingRecorder.current();
+        if (recorder != null) {
+            recorder.add(phase, nanos);
+        }
+    }
+
+    private Timer phaseTimer(AuthPhase phase, String outcome) {
+        return Timer.builder(PHASE_TIMER)
+                .description("Time spent in one phase of authentication work")
+                .tag("phase", phase.tag())
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,17 @@
+package com.demo.authservice.observability;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("com.demo.authservice.PrincipalLoad")
+@Label("Principal Load")
+@Category("Auth Service")
+@Description("Principal lookup for an authenticated request")
+@Threshold("2 ms")
+@StackTrace(false)
+public class PrincipalLoadEvent extends AuthPhaseEvent {
+}
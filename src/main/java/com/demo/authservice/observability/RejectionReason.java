@@ -0,0 +1,29 @@
+package com.demo.authservice.observability;
+
+/**
+ * Why a request was turned away; the {@code reason} tag of {@code auth.rejections}.
+ */
+public enum RejectionReason {
+
+    MISSING_TOKEN("missing_token"),
+    INVALID_TOKEN("invalid_token"),
+    INVALID_CREDENTIALS("invalid_credentials"),
+    EMAIL_EXISTS("email_exists"),
+    ALREADY_EXISTS("already_exists"),
+    NOT_FOUND("not_found"),
+    INVALID_REQUEST("invalid_request"),
+    VALIDATION("validation"),
+    ACCESS_DENIED("access_denied"),
+    OVERLOADED("overloaded"),
+    ERROR("error");
+
+    private final String tag;
+
+    RejectionReason(String tag) {
+        this.tag = tag;
+    }
+
+    public String tag() {
+        return tag;
+    }
+}
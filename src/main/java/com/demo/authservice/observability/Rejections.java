@@ -0,0 +1,31 @@
+package com.demo.authservice.observability;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Counts rejected requests by {@link RejectionReason} as {@code auth.rejections}.
+ */
+
+@Component
+public class Rejections {
+
+    private final Map<RejectionReason, Counter> counters = new EnumMap<>(RejectionReason.class);
+
+    public Rejections(MeterRegistry meterRegistry) {
+        for (RejectionReason reason : RejectionReason.values()) {
+            counters.put(reason, Counter.builder("auth.rejections")
+                    .description("Requests rejected, by reason")
+                    .tag("reason", reason.tag())
+                    .register(meterRegistry));
+        }
+    }
+
+    public void record(RejectionReason reason) {
+        counters.get(reason).increment();
+    }
+}
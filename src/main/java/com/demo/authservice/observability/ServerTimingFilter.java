@@ -0,0 +1,60 @@
+package com.demo.authservice.observability;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Adds a {@code Server-Timing} header listing the time spent in each
+ * {@link AuthPhase} during the request, plus the total.
+ *
+ * <p>Registered ahead of the concurrency limiter and Spring Security when
+ * {@code auth.server-timing.enabled=true}. The header is set just before the
+ * response is committed, so it also appears on streamed and error responses.</p>
+ */
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    static final String HEADER = "Server-Timing";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        ServerTimingRecorder recorder = ServerTimingRecorder.bind();
+        TimingResponse timingResponse = new TimingResponse(response, recorder);
+        try {
+            filterChain.doFilter(request, timingResponse);
+        } finally {
+            ServerTimingRecorder.unbind();
+            timingResponse.writeHeader();
+        }
+    }
+
+    private static final class TimingResponse extends OnCommittedResponseWrapper {
+
+        private final ServerTimingRecorder recorder;
+        private boolean written;
+
+        TimingResponse(HttpServletResponse response, ServerTimingRecorder recorder) {
+            super(response);
+            this.recorder = recorder;
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            writeHeader();
+        }
+
+        void writeHeader() {
+            if (!written && !getResponse().isCommitted()) {
+                written = true;
+                ((HttpServletResponse) getResponse()).setHeader(HEADER, recorder.header());
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.demo.authservice.observability;
+
+import java.util.Locale;
+
+/**
+ * Per-request accumulator of phase durations, rendered as a {@code Server-Timing}
+ * header value.
+ *
+ * <p>Bound to the request thread by {@link ServerTimingFilter}; {@link PhaseTracker}
+ * adds to it when one is bound. Nested phases (for example {@code event_publish}
+ * inside {@code db_write}) are each reported with their full duration.</p>
+ */
+public final class ServerTimingRecorder {
+
+    private static final ThreadLocal<ServerTimingRecorder> CURRENT = new ThreadLocal<>();
+    private static final AuthPhase[] PHASES = AuthPhase.values();
+
+    private final long startNanos = System.nanoTime();
+    private final long[] phaseNanos = new long[PHASES.length];
+    private final int[] phaseCounts = new int[PHASES.length];
+
+    private ServerTimingRecorder() {
+    }
+
+    static ServerTimingRecorder bind() {
+        ServerTimingRecorder recorder = new ServerTimingRecorder();
+        CURRENT.set(recorder);
+        return recorder;
+    }
+
+    static void unbind() {
+        CURRENT.remove();
+    }
+
+    static ServerTimingRecorder current() {
+        return CURRENT.get();
+    }
+
+    void add(AuthPhase phase, long nanos) {
+        phaseNanos[phase.ordinal()] += nanos;
+        phaseCounts[phase.ordinal()]++;
+    }
+
+    /**
+     * e.g. {@code token_verify;dur=0.214, principal_load;dur=1.870, total;dur=4.512}
+     */
+    String header() {
+        StringBuilder header = new StringBuilder(128);
+        for (AuthPhase phase : PHASES) {
+            int count = phaseCounts[phase.ordinal()];
+            if (count == 0) {
+                continue;
+            }
+            header.append(phase.tag()).append(";dur=").append(millis(phaseNanos[phase.ordinal()]));
+            if (count > 1) {
+                header.append(";desc=\"x").append(count).append('"');
+            }
+            header.append(", ");
+        }
+        return header.append("total;dur=").append(millis(System.nanoTime() - startNanos)).toString();
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,17 @@
+package com.demo.authservice.observability;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("com.demo.authservice.TokenVerify")
+@Label("Token Verify")
+@Category("Auth Service")
+@Description("JWT signature check and claims parsing")
+@Threshold("1 ms")
+@StackTrace(false)
+public class TokenVerifyEvent extends AuthPhaseEvent {
+}
@@ -0,0 +1,36 @@
+package com.demo.authservice.repository;
+
+
+import com.demo.authservice.entity.OutboxEventEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEventEntity, Long> {
+
+    // Oldest unsent events; only the relay holding the lease reads them, so no rows are locked
+    @Query("select e from OutboxEventEntity e where e.sentDate is null and e.parkedDate is null order by e.id")
+    List<OutboxEventEntity> findUnsent(Pageable pageable);
+
+    @Modifying
+    @Query("update OutboxEventEntity e set e.sentDate = :sentDate where e.id in :ids")
+    int markSent(@Param("ids") List<Long> ids, @Param("sentDate") LocalDateTime sentDate);
+
+    // parkedDate stays null while the event is still retried
+    @Modifying
+    @Query("update OutboxEventEntity e set e.attempts = e.attempts + 1, e.lastError = :error, "
+            + "e.parkedDate = :parkedDate where e.id = :id")
+    int recordFailure(@Param("id") Long id, @Param("error") String error,
+                      @Param("parkedDate") LocalDateTime parkedDate);
+
+    @Modifying
+    @Query("delete from OutboxEventEntity e where e.sentDate < :before")
+    int deleteSentBefore(@Param("before") LocalDateTime before);
+}
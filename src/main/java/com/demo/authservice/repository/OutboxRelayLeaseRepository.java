@@ -0,0 +1,24 @@
+package com.demo.authservice.repository;
+
+
+import com.demo.authservice.entity.OutboxRelayLeaseEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface OutboxRelayLeaseRepository extends JpaRepository<OutboxRelayLeaseEntity, String> {
+
+    // Renews the lease for its owner or takes over an expired one; 1 if this node now holds it
+    @Modifying
+    @Query("update OutboxRelayLeaseEntity l set l.owner = :owner, l.lockedUntil = :until "
+            + "where l.name = :name and (l.owner = :owner or l.lockedUntil < :now)")
+    int acquire(@Param("name") String name,
+                @Param("owner") String owner,
+                @Param("now") LocalDateTime now,
+                @Param("until") LocalDateTime until);
+}
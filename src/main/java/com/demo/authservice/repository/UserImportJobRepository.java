@@ -0,0 +1,10 @@
+package com.demo.authservice.repository;
+
+
+import com.demo.authservice.entity.UserImportJobEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface UserImportJobRepository extends JpaRepository<UserImportJobEntity, String> {
+}
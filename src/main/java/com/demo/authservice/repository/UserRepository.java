@@ -2,9 +2,15 @@ package com.demo.authservice.repository;
 
 
 import com.demo.authservice.entity.UserEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,5 +18,22 @@ public interface UserRepository extends JpaRepository<UserEntity, Long> {
     Optional<UserEntity> findByEmail(String email);
 
     boolean existsByEmail(String email);
-}
 
+    // One statement for the admin report; loading entities would also load every user's roles
+    @Query("select u.email as email, u.lastLogin as lastLogin from UserEntity u")
+    List<LastLogin> findAllLastLogins();
+
+    // Warm-up: most recently active principals first
+    @Query("select u.email from UserEntity u where u.lastLogin is not null order by u.lastLogin desc")
+    List<String> findRecentlyActiveEmails(Pageable pageable);
+
+    // Users and their roles in one statement
+    @EntityGraph(attributePaths = "roles")
+    List<UserEntity> findByEmailIn(Collection<String> emails);
+
+    interface LastLogin {
+        String getEmail();
+
+        ZonedDateTime getLastLogin();
+    }
+}
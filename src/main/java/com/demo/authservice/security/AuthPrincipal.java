@@ -0,0 +1,56 @@
+package com.demo.authservice.security;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Identity and role names of an authenticated user, as needed by the JWT filter.
+ *
+ * <p>{@code versionStamp} is the user's {@code modified_date} in epoch millis
+ * (0 if unknown). It is attached to the authentication as details, so
+ * {@code /users/me} can answer conditional requests from {@link #etag()} without
+ * loading the user again.</p>
+ */
+public record AuthPrincipal(Long userId, String email, List<String> roleNames, long versionStamp) {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /**
+     * Version stamp for a {@code modified_date} as mapped on the entity (0 if unknown).
+     * Every path that builds a principal goes through here, so the stamp and the
+     * {@link #etag()} do not depend on where the principal was loaded from.
+     */
+    public static long stampOf(LocalDateTime modifiedDate) {
+        return modifiedDate != null ? modifiedDate.toInstant(ZoneOffset.UTC).toEpochMilli() : 0L;
+    }
+
+    /**
+     * Strong entity tag (unquoted) over user id, version stamp and role set.
+     */
+    public String etag() {
+        long hash = mix(FNV_OFFSET, userId != null ? userId : 0L);
+        hash = mix(hash, versionStamp);
+
+        // Role order is not significant
+        List<String> sortedRoles = new ArrayList<>(roleNames);
+        sortedRoles.sort(null);
+        for (String role : sortedRoles) {
+            for (byte b : role.getBytes(StandardCharsets.UTF_8)) {
+                hash = (hash ^ (b & 0xff)) * FNV_PRIME;
+            }
+            hash = (hash ^ 0xff) * FNV_PRIME; // separator, never part of UTF-8 text
+        }
+        return Long.toHexString(userId != null ? userId : 0L) + "-" + Long.toHexString(hash);
+    }
+
+    private static long mix(long hash, long value) {
+        for (int shift = 0; shift < Long.SIZE; shift += Byte.SIZE) {
+            hash = (hash ^ ((value >>> shift) & 0xff)) * FNV_PRIME;
+        }
+        return hash;
+    }
+}
@@ -1,12 +1,20 @@
 package com.demo.authservice.security;
 
+import com.demo.authservice.cache.CoalescingUserLoader;
 import com.demo.authservice.constants.AuthEndpoints;
+import com.demo.authservice.entity.RoleEntity;
 import com.demo.authservice.entity.UserEntity;
-import com.demo.authservice.repository.UserRepository;
+import com.demo.authservice.exception.ServiceOverloadedException;
+import com.demo.authservice.observability.AuthPhase;
+import com.demo.authservice.observability.PhaseTracker;
+import com.demo.authservice.observability.RejectionReason;
+import com.demo.authservice.observability.Rejections;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -14,6 +22,8 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -22,28 +32,51 @@ import java.util.stream.Collectors;
  *
  * <p>This filter intercepts every request once per request lifecycle and:
  * <ul>
- *   <li>Skips authentication for public endpoints (login, register, Swagger docs).</li>
+ *   <li>Skips authentication for public endpoints (login, register, health probes,
+ *       and Swagger docs unless {@code springdoc.api-docs.enabled=false}).</li>
+ *   <li>Authenticates the Prometheus scraper on {@code /actuator/prometheus} when it
+ *       sends {@code auth.metrics.scrape-token} as its bearer token (role {@code METRICS}).</li>
  *   <li>Extracts and validates the JWT token from the "Authorization" header.</li>
- *   <li>Loads the user from the database and verifies token validity.</li>
+ *   <li>Loads the principal from the optional off-heap {@link PrincipalStore} or
+ *       the database (coalescing concurrent lookups of the same principal) and
+ *       verifies token validity. A coalesced lookup that times out gets a
+ *       {@code 503} with {@code Retry-After: 1}.</li>
  *   <li>Builds a Spring Security authentication object using user roles.</li>
  * </ul>
  *
  * <p>If the token is missing, invalid, or expired, the filter returns a
- * {@code 401 Unauthorized} response with a JSON error message.</p>
+ * {@code 401 Unauthorized} response with a JSON error message, counted in
+ * {@code auth.rejections}. Principal loading is timed as
+ * {@link AuthPhase#PRINCIPAL_LOAD}.</p>
  *
  * <p>On successful validation, the authenticated user's details and authorities
- * are stored in the {@link SecurityContextHolder} for downstream processing.</p>
+ * are stored in the {@link SecurityContextHolder} for downstream processing, with
+ * the {@link AuthPrincipal} as authentication details.</p>
  */
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final UserRepository userRepository;
-
-    public JwtAuthenticationFilter(JwtService jwtService, UserRepository userRepository) {
+    private final CoalescingUserLoader userLoader;
+    private final PrincipalStore principalStore; // null unless auth.principal-store.enabled
+    private final PhaseTracker phaseTracker;
+    private final Rejections rejections;
+    private final boolean apiDocsEnabled;
+    private final byte[] scrapeToken; // empty: only admins can read metrics
+
+    public JwtAuthenticationFilter(JwtService jwtService, CoalescingUserLoader userLoader,
+                                   ObjectProvider<PrincipalStore> principalStore,
+                                   PhaseTracker phaseTracker, Rejections rejections,
+                                   @Value("${springdoc.api-docs.enabled:true}") boolean apiDocsEnabled,
+                                   @Value("${auth.metrics.scrape-token:}") String scrapeToken) {
         this.jwtService = jwtService;
-        this.userRepository = userRepository;
+        this.userLoader = userLoader;
+        this.principalStore = principalStore.getIfAvailable();
+        this.phaseTracker = phaseTracker;
+        this.rejections = rejections;
+        this.apiDocsEnabled = apiDocsEnabled;
+        this.scrapeToken = scrapeToken.getBytes(StandardCharsets.UTF_8);
     }
 
     @Override
@@ -55,11 +88,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         String path = request.getServletPath();
 
         // Skip public paths
-        if (path.equals(AuthEndpoints.REGISTER)
-                || path.equals(AuthEndpoints.LOGIN)
-                || path.equals(AuthEndpoints.SWAGGER_UI_HTML)
-                || path.startsWith(AuthEndpoints.SWAGGER_UI)
-                || path.startsWith(AuthEndpoints.API_DOCS)) {
+        if (isPublic(path)) {
             filterChain.doFilter(request, response);
             return;
         }
@@ -67,6 +96,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         final String authHeader = request.getHeader("Authorization");
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            rejections.record(RejectionReason.MISSING_TOKEN);
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             response.setContentType(AuthEndpoints.CONTENT_TYPE);
             response.getWriter().write("{\"error\": \"Authorization header with Bearer token is required\"}");
@@ -74,11 +104,20 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         final String jwt = authHeader.substring(7);
+
+        if (path.equals(AuthEndpoints.PROMETHEUS) && isScrapeToken(jwt)) {
+            SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                    "prometheus", null, List.of(new SimpleGrantedAuthority("ROLE_METRICS"))));
+            filterChain.doFilter(request, response);
+            return;
+        }
+
         final String email;
 
         try {
             email = jwtService.extractUsername(jwt);
         } catch (Exception e) {
+            rejections.record(RejectionReason.INVALID_TOKEN);
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             response.setContentType(AuthEndpoints.CONTENT_TYPE);
             response.getWriter().write("{\"error\": \"JWT token is invalid or expired\"}");
@@ -86,10 +125,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserEntity userEntity = userRepository.findByEmail(email)
-                    .orElse(null);
+            AuthPrincipal principal;
+            try {
+                principal = phaseTracker.track(AuthPhase.PRINCIPAL_LOAD, () -> loadPrincipal(email));
+            } catch (ServiceOverloadedException e) {
+                // Thrown outside MVC, so the exception handler would not see it
+                rejections.record(RejectionReason.OVERLOADED);
+                response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+                response.setHeader("Retry-After", "1");
+                response.setContentType(AuthEndpoints.CONTENT_TYPE);
+                response.getWriter().write("{\"error\": \"Service is overloaded, please retry\"}");
+                return;
+            }
 
-            if (userEntity == null || !jwtService.isTokenValid(jwt, userEntity)) {
+            if (principal == null || !jwtService.isTokenValid(jwt, principal.email())) {
+                rejections.record(RejectionReason.INVALID_TOKEN);
                 response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
                 response.setContentType(AuthEndpoints.CONTENT_TYPE);
                 response.getWriter().write("{\"error\": \"JWT token is invalid or expired\"}");
@@ -97,13 +147,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             }
 
             // Map DB roles to Spring Security authorities with ROLE_ prefix
-            List<SimpleGrantedAuthority> authorities = userEntity.getRoles().stream()
-                    .map(r -> new SimpleGrantedAuthority(
-                            r.getName().startsWith("ROLE_") ? r.getName() : "ROLE_" + r.getName()))
+            List<SimpleGrantedAuthority> authorities = principal.roleNames().stream()
+                    .map(name -> new SimpleGrantedAuthority(
+                            name.startsWith("ROLE_") ? name : "ROLE_" + name))
                     .collect(Collectors.toList());
 
             UsernamePasswordAuthenticationToken authToken =
-                    new UsernamePasswordAuthenticationToken(userEntity.getEmail(), null, authorities);
+                    new UsernamePasswordAuthenticationToken(principal.email(), null, authorities);
+            // Version metadata for conditional GETs of /users/me
+            authToken.setDetails(principal);
 
             SecurityContextHolder.getContext().setAuthentication(authToken);
         }
@@ -111,4 +163,42 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
-}
\ No newline at end of file
+    private boolean isPublic(String path) {
+        return path.equals(AuthEndpoints.REGISTER)
+                || path.equals(AuthEndpoints.LOGIN)
+                || path.startsWith(AuthEndpoints.HEALTH)
+                || (apiDocsEnabled && (path.equals(AuthEndpoints.SWAGGER_UI_HTML)
+                        || path.startsWith(AuthEndpoints.SWAGGER_UI)
+                        || path.startsWith(AuthEndpoints.API_DOCS)));
+    }
+
+    private boolean isScrapeToken(String token) {
+        return scrapeToken.length > 0
+                && MessageDigest.isEqual(scrapeToken, token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Off-heap store first (when enabled), then a coalesced database lookup
+    private AuthPrincipal loadPrincipal(String email) {
+        if (principalStore != null) {
+            AuthPrincipal cached = principalStore.find(email).orElse(null);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        UserEntity userEntity = userLoader.findByEmail(email).orElse(null);
+        if (userEntity == null) {
+            return null;
+        }
+        if (principalStore != null) {
+            principalStore.put(userEntity);
+        }
+
+        List<String> roleNames = userEntity.getRoles().stream()
+                .map(RoleEntity::getName)
+                .collect(Collectors.toList());
+        return new AuthPrincipal(userEntity.getId(), userEntity.getEmail(), roleNames,
+                AuthPrincipal.stampOf(userEntity.getModifiedDate()));
+    }
+
+}
@@ -2,6 +2,8 @@ package com.demo.authservice.security;
 
 
 import com.demo.authservice.entity.UserEntity;
+import com.demo.authservice.observability.AuthPhase;
+import com.demo.authservice.observability.PhaseTracker;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
@@ -30,6 +32,9 @@ import java.util.stream.Collectors;
  *
  * <p>Tokens are typically used in HTTP Authorization headers to secure endpoints
  * in combination with a JWT filter.</p>
+ *
+ * <p>Signing and parsing are timed as the {@link AuthPhase#TOKEN_ISSUE} and
+ * {@link AuthPhase#TOKEN_VERIFY} phases.</p>
  */
 
 
@@ -41,13 +46,19 @@ public class JwtService {
 
     private static final long EXPIRATION_MS = 24 * 60 * 60 * 1000; // 24 hours
 
+    private final PhaseTracker phaseTracker;
+
+    public JwtService(PhaseTracker phaseTracker) {
+        this.phaseTracker = phaseTracker;
+    }
+
     private Key getSigningKey() {
         return Keys.hmacShaKeyFor(secret.getBytes());
     }
 
     // Generate JWT token with email as subject and roles as claim
     public String generateToken(UserEntity userEntity) {
-        return Jwts.builder()
+        return phaseTracker.track(AuthPhase.TOKEN_ISSUE, () -> Jwts.builder()
                 .setSubject(userEntity.getEmail())
                 .claim("username", userEntity.getUsername())  // custom claim
                 .claim("email", userEntity.getEmail())
@@ -58,7 +69,7 @@ public class JwtService {
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_MS))
                 .signWith(getSigningKey(), SignatureAlgorithm.HS256)
-                .compact();
+                .compact());
     }
 
     // Extract email from token
@@ -68,20 +79,21 @@ public class JwtService {
 
     // Validate token
     public boolean isTokenValid(String token, UserEntity userEntity) {
-        String email = extractUsername(token);
-        return (email.equals(userEntity.getEmail()) && !isTokenExpired(token));
+        return isTokenValid(token, userEntity.getEmail());
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractAllClaims(token).getExpiration().before(new Date());
+    // Validate token against a known principal email (parses the token once)
+    public boolean isTokenValid(String token, String principalEmail) {
+        Claims claims = extractAllClaims(token);
+        return (claims.getSubject().equals(principalEmail) && !claims.getExpiration().before(new Date()));
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
+        return phaseTracker.track(AuthPhase.TOKEN_VERIFY, () -> Jwts.parserBuilder()
                 .setSigningKey(getSigningKey())
                 .build()
                 .parseClaimsJws(token)
-                .getBody();
+                .getBody());
     }
 }
 
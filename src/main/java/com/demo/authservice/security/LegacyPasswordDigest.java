@@ -0,0 +1,91 @@
+package com.demo.authservice.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+
+/**
+ * Unsalted hex digests used for passwords by legacy systems.
+ *
+ * <p>Imported legacy hashes are not stored as they are: they are wrapped in
+ * BCrypt by {@link WrappingPasswordEncoder}, so the weak digest never sits in the
+ * {@code users} table on its own.</p>
+ */
+public enum LegacyPasswordDigest {
+
+    MD5("md5", "MD5"),
+    SHA1("sha1", "SHA-1"),
+    SHA256("sha256", "SHA-256");
+
+    private final String id;
+    private final String algorithm;
+    private final int hexLength;
+
+    LegacyPasswordDigest(String id, String algorithm) {
+        this.id = id;
+        this.algorithm = algorithm;
+        this.hexLength = 2 * newDigest(algorithm).getDigestLength();
+    }
+
+    public String id() {
+        return id;
+    }
+
+    // Prefix of a wrapped hash in the users table, e.g. "{sha256}"
+    public String prefix() {
+        return "{" + id + "}";
+    }
+
+    public boolean isValidHash(String hex) {
+        if (hex == null || hex.length() != hexLength) {
+            return false;
+        }
+        for (int i = 0; i < hex.length(); i++) {
+            if (Character.digit(hex.charAt(i), 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public String normalize(String hex) {
+        return hex.toLowerCase(Locale.ROOT);
+    }
+
+    public String digestHex(CharSequence rawPassword) {
+        byte[] digest = newDigest(algorithm).digest(rawPassword.toString().getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest);
+    }
+
+    public static LegacyPasswordDigest fromId(String id) {
+        for (LegacyPasswordDigest digest : values()) {
+            if (digest.id.equalsIgnoreCase(id)) {
+                return digest;
+            }
+        }
+        return null;
+    }
+
+    // The digest whose prefix the stored hash carries, or null for a plain BCrypt hash
+    public static LegacyPasswordDigest fromStoredHash(String encodedPassword) {
+        if (encodedPassword == null || !encodedPassword.startsWith("{")) {
+            return null;
+        }
+        for (LegacyPasswordDigest digest : values()) {
+            if (encodedPassword.startsWith(digest.prefix())) {
+                return digest;
+            }
+        }
+        return null;
+    }
+
+    private static MessageDigest newDigest(String algorithm) {
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(algorithm + " is not available", e);
+        }
+    }
+}
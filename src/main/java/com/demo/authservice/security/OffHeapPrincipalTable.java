@@ -0,0 +1,265 @@
+package com.demo.authservice.security;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Fixed-layout, open-addressing hash table of principals kept in direct
+ * (off-heap) memory.
+ *
+ * <p>Each slot is 40 bytes and holds two independent 64-bit hashes of the email
+ * (together the key), the user id, the role bitmask and a version stamp. No
+ * per-entry Java objects are retained, so heap size and GC work do not grow
+ * with the number of principals.</p>
+ *
+ * <ul>
+ *   <li>Linear probing with backward-shift deletion (no tombstones).</li>
+ *   <li>A stored principal is never replaced by one with an older version stamp.</li>
+ *   <li>Reads are optimistic ({@link StampedLock}) and fall back to a read lock
+ *       when they race with a write.</li>
+ *   <li>The table never resizes; once {@code 75%} full, further inserts are
+ *       refused and callers fall back to the database.</li>
+ * </ul>
+ */
+public final class OffHeapPrincipalTable {
+
+    static final int SLOT_SIZE = 40;
+    static final int MAX_CAPACITY = 1 << 25;
+
+    private static final int HASH_HI = 0;
+    private static final int HASH_LO = 8;
+    private static final int USER_ID = 16;
+    private static final int ROLE_MASK = 24;
+    private static final int STAMP = 32;
+
+    private final ByteBuffer memory;
+    private final int mask;
+    private final int maxEntries;
+    private final StampedLock lock = new StampedLock();
+
+    // guarded by the write lock
+    private int size;
+
+    public OffHeapPrincipalTable(int requestedCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(2, Math.min(requestedCapacity, MAX_CAPACITY)) * 2 - 1);
+        this.memory = ByteBuffer.allocateDirect(capacity * SLOT_SIZE).order(ByteOrder.nativeOrder());
+        this.mask = capacity - 1;
+        this.maxEntries = (int) (capacity * 0.75);
+    }
+
+    /**
+     * Value stored for a principal.
+     */
+    public record Entry(long userId, long roleMask, long stamp) {
+    }
+
+    public Entry get(String email) {
+        long hi = hashHi(email);
+        long lo = hashLo(email);
+
+        long stamp = lock.tryOptimisticRead();
+        Entry entry = find(hi, lo);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                entry = find(hi, lo);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * Inserts or replaces a principal, unless the stored one has a newer version stamp.
+     *
+     * @return {@code false} if the principal was not stored: the table is full or
+     *         holds a newer version
+     */
+    public boolean put(String email, long userId, long roleMask, long versionStamp) {
+        long hi = hashHi(email);
+        long lo = hashLo(email);
+
+        long stamp = lock.writeLock();
+        try {
+            int slot = indexFor(hi);
+            while (true) {
+                int base = slot * SLOT_SIZE;
+                long slotHi = memory.getLong(base + HASH_HI);
+                if (slotHi == 0) {
+                    if (size >= maxEntries) {
+                        return false;
+                    }
+                    write(base, hi, lo, userId, roleMask, versionStamp);
+                    size++;
+                    return true;
+                }
+                if (slotHi == hi && memory.getLong(base + HASH_LO) == lo) {
+                    if (memory.getLong(base + STAMP) > versionStamp) {
+                        return false;
+                    }
+                    write(base, hi, lo, userId, roleMask, versionStamp);
+                    return true;
+                }
+                slot = (slot + 1) & mask;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public boolean remove(String email) {
+        long hi = hashHi(email);
+        long lo = hashLo(email);
+
+        long stamp = lock.writeLock();
+        try {
+            int hole = indexOf(hi, lo);
+            if (hole < 0) {
+                return false;
+            }
+
+            // Backward-shift: pull later entries of the probe run into the hole
+            int next = hole;
+            while (true) {
+                next = (next + 1) & mask;
+                int base = next * SLOT_SIZE;
+                long nextHi = memory.getLong(base + HASH_HI);
+                if (nextHi == 0) {
+                    break;
+                }
+                int home = indexFor(nextHi);
+                boolean movable = hole <= next
+                        ? (home <= hole || home > next)
+                        : (home <= hole && home > next);
+                if (movable) {
+                    copy(next, hole);
+                    hole = next;
+                }
+            }
+
+            clear(hole);
+            size--;
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void clear() {
+        long stamp = lock.writeLock();
+        try {
+            for (int slot = 0; slot <= mask; slot++) {
+                clear(slot);
+            }
+            size = 0;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    // Bounded probe so that an optimistic read racing a write always terminates
+    private Entry find(long hi, long lo) {
+        int slot = indexFor(hi);
+        for (int probes = 0; probes <= mask; probes++) {
+            int base = slot * SLOT_SIZE;
+            long slotHi = memory.getLong(base + HASH_HI);
+            if (slotHi == 0) {
+                return null;
+            }
+            if (slotHi == hi && memory.getLong(base + HASH_LO) == lo) {
+                return new Entry(
+                        memory.getLong(base + USER_ID),
+                        memory.getLong(base + ROLE_MASK),
+                        memory.getLong(base + STAMP));
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    private int indexOf(long hi, long lo) {
+        int slot = indexFor(hi);
+        while (true) {
+            int base = slot * SLOT_SIZE;
+            long slotHi = memory.getLong(base + HASH_HI);
+            if (slotHi == 0) {
+                return -1;
+            }
+            if (slotHi == hi && memory.getLong(base + HASH_LO) == lo) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private int indexFor(long hi) {
+        return (int) hi & mask;
+    }
+
+    private void write(int base, long hi, long lo, long userId, long roleMask, long versionStamp) {
+        memory.putLong(base + USER_ID, userId);
+        memory.putLong(base + ROLE_MASK, roleMask);
+        memory.putLong(base + STAMP, versionStamp);
+        memory.putLong(base + HASH_LO, lo);
+        memory.putLong(base + HASH_HI, hi);
+    }
+
+    private void copy(int fromSlot, int toSlot) {
+        int from = fromSlot * SLOT_SIZE;
+        int to = toSlot * SLOT_SIZE;
+        for (int offset = 0; offset < SLOT_SIZE; offset += Long.BYTES) {
+            memory.putLong(to + offset, memory.getLong(from + offset));
+        }
+    }
+
+    private void clear(int slot) {
+        int base = slot * SLOT_SIZE;
+        for (int offset = 0; offset < SLOT_SIZE; offset += Long.BYTES) {
+            memory.putLong(base + offset, 0L);
+        }
+    }
+
+    // FNV-1a over UTF-16 code units; 0 is reserved for empty slots
+    static long hashHi(String email) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < email.length(); i++) {
+            hash ^= email.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash = mix(hash);
+        return hash != 0 ? hash : 1;
+    }
+
+    // Independent multiply-rotate hash, so a key match requires two 64-bit matches
+    static long hashLo(String email) {
+        long hash = 0x9E3779B97F4A7C15L ^ email.length();
+        for (int i = 0; i < email.length(); i++) {
+            hash = Long.rotateLeft(hash + email.charAt(i) * 0xC2B2AE3D27D4EB4FL, 31) * 0x9E3779B97F4A7C15L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,260 @@
+package com.demo.authservice.security;
+
+import com.demo.authservice.config.DataSourcePool;
+import com.demo.authservice.config.DataSourcePoolContext;
+import com.demo.authservice.entity.RoleEntity;
+import com.demo.authservice.entity.UserEntity;
+import com.demo.authservice.repository.RoleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Optional;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Optional off-heap principal store in front of the JWT filter's user lookup.
+ *
+ * <p>Enabled with {@code auth.principal-store.enabled=true}. Principals
+ * (email &rarr; user id, roles, version stamp) are kept in an
+ * {@link OffHeapPrincipalTable}; role sets are encoded as a 64-bit mask where
+ * bit {@code n} stands for the role with id {@code n + 1}.</p>
+ *
+ * <ul>
+ *   <li>Filled lazily on lookups and, with {@code auth.principal-store.preload=true},
+ *       streamed from the {@code users}/{@code user_roles} tables at startup.</li>
+ *   <li>Kept current on registration, and evicted on role assignment and by the
+ *       cache invalidation bus when another node changes a user.</li>
+ *   <li>An eviction leaves a tombstone for {@code auth.principal-store.tombstone-ttl}:
+ *       until it expires the user is not stored again, so a lookup that read the user
+ *       before the change cannot put the old roles back. The TTL must exceed the
+ *       slowest principal lookup.</li>
+ *   <li>A stored principal is only replaced by one with a version stamp
+ *       (modification time) at least as new.</li>
+ *   <li>Users holding a role with an id above 64, or arriving once the table is
+ *       full, are simply not stored and keep using the database path.</li>
+ * </ul>
+ */
+
+@Component
+@ConditionalOnProperty(name = "auth.principal-store.enabled", havingValue = "true")
+public class PrincipalStore {
+
+    private static final Logger log = LoggerFactory.getLogger(PrincipalStore.class);
+
+    private static final int MAX_ROLE_BITS = Long.SIZE;
+    private static final int PRELOAD_FETCH_SIZE = 1000;
+
+    private final OffHeapPrincipalTable table;
+    private final RoleRepository roleRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean preload;
+    private final long tombstoneTtlNanos;
+
+    // email -> System.nanoTime() until which it may not be stored again
+    private final ConcurrentMap<String, Long> tombstones = new ConcurrentHashMap<>();
+
+    // role name by bit index; replaced as a whole when roles change
+    private volatile String[] roleNamesByBit = new String[MAX_ROLE_BITS];
+    private volatile boolean rolesStale = true;
+
+    public PrincipalStore(RoleRepository roleRepository,
+                          DataSource dataSource,
+                          @Value("${auth.principal-store.capacity:1048576}") int capacity,
+                          @Value("${auth.principal-store.preload:false}") boolean preload,
+                          @Value("${auth.principal-store.tombstone-ttl:30s}") Duration tombstoneTtl) {
+        this.table = new OffHeapPrincipalTable(capacity);
+        this.roleRepository = roleRepository;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(PRELOAD_FETCH_SIZE);
+        this.preload = preload;
+        this.tombstoneTtlNanos = tombstoneTtl.toNanos();
+    }
+
+    public Optional<AuthPrincipal> find(String email) {
+        OffHeapPrincipalTable.Entry entry = table.get(email);
+        if (entry == null) {
+            return Optional.empty();
+        }
+
+        List<String> roleNames = decodeRoles(entry.roleMask());
+        if (roleNames == null) {
+            table.remove(email);
+            return Optional.empty();
+        }
+        return Optional.of(new AuthPrincipal(entry.userId(), email, roleNames, entry.stamp()));
+    }
+
+    public void put(UserEntity userEntity) {
+        if (isTombstoned(userEntity.getEmail())) {
+            return;
+        }
+
+        long roleMask = 0L;
+        for (RoleEntity role : userEntity.getRoles()) {
+            long bit = bitFor(role.getId());
+            if (bit == 0L) {
+                table.remove(userEntity.getEmail());
+                return;
+            }
+            roleMask |= bit;
+        }
+
+        table.put(userEntity.getEmail(), userEntity.getId(), roleMask,
+                AuthPrincipal.stampOf(userEntity.getModifiedDate()));
+    }
+
+    public void remove(String email) {
+        long now = System.nanoTime();
+        tombstones.values().removeIf(until -> until - now <= 0);
+        tombstones.put(email, now + tombstoneTtlNanos);
+        table.remove(email);
+    }
+
+    public void rolesChanged() {
+        rolesStale = true;
+    }
+
+    public int size() {
+        return table.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        if (!preload) {
+            return;
+        }
+
+        PreloadCursor cursor = new PreloadCursor();
+        // Read modified_date the way Hibernate does (hibernate.jdbc.time_zone=UTC), so the
+        // stamp matches the entity's whatever the JVM's default time zone
+        Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+
+        try (DataSourcePoolContext.Scope ignored = DataSourcePoolContext.use(DataSourcePool.BULK)) {
+            // Rows arrive ordered by user, so one user's roles are folded before moving on
+            jdbcTemplate.query(
+                    "SELECT u.id, u.email, u.modified_date, ur.role_id FROM users u "
+                            + "LEFT JOIN user_roles ur ON ur.user_id = u.id ORDER BY u.id",
+                    rs -> {
+                        long userId = rs.getLong(1);
+                        if (userId != cursor.userId) {
+                            cursor.flushTo(table);
+                            Timestamp modified = rs.getTimestamp(3, utc);
+                            cursor.start(userId, rs.getString(2),
+                                    AuthPrincipal.stampOf(modified != null ? modified.toLocalDateTime() : null));
+                        }
+                        long roleId = rs.getLong(4);
+                        if (!rs.wasNull()) {
+                            cursor.addRoleBit(bitFor(roleId));
+                        }
+                    });
+            cursor.flushTo(table);
+        }
+
+        log.info("Preloaded {} principals into the off-heap principal store", table.size());
+    }
+
+    private boolean isTombstoned(String email) {
+        Long until = tombstones.get(email);
+        if (until == null) {
+            return false;
+        }
+        if (until - System.nanoTime() > 0) {
+            return true;
+        }
+        tombstones.remove(email, until);
+        return false;
+    }
+
+    private static long bitFor(Long roleId) {
+        if (roleId == null || roleId < 1 || roleId > MAX_ROLE_BITS) {
+            return 0L;
+        }
+        return 1L << (roleId - 1);
+    }
+
+    // Returns null if the mask references a role that no longer exists
+    private List<String> decodeRoles(long roleMask) {
+        String[] names = roleNamesByBit;
+        if (rolesStale || !allKnown(names, roleMask)) {
+            names = reloadRoles();
+            if (!allKnown(names, roleMask)) {
+                return null;
+            }
+        }
+
+        List<String> roleNames = new ArrayList<>(Long.bitCount(roleMask));
+        long remaining = roleMask;
+        while (remaining != 0L) {
+            int bit = Long.numberOfTrailingZeros(remaining);
+            roleNames.add(names[bit]);
+            remaining &= remaining - 1;
+        }
+        return roleNames;
+    }
+
+    private static boolean allKnown(String[] names, long roleMask) {
+        long remaining = roleMask;
+        while (remaining != 0L) {
+            if (names[Long.numberOfTrailingZeros(remaining)] == null) {
+                return false;
+            }
+            remaining &= remaining - 1;
+        }
+        return true;
+    }
+
+    private String[] reloadRoles() {
+        rolesStale = false;
+        String[] names = new String[MAX_ROLE_BITS];
+        for (RoleEntity role : roleRepository.findAll()) {
+            long bit = bitFor(role.getId());
+            if (bit != 0L) {
+                names[Long.numberOfTrailingZeros(bit)] = role.getName();
+            }
+        }
+        roleNamesByBit = names;
+        return names;
+    }
+
+    // Principal being assembled from consecutive preload rows
+    private static final class PreloadCursor {
+        private long userId = -1L;
+        private String email;
+        private long roleMask;
+        private long versionStamp;
+        private boolean encodable;
+
+        void start(long userId, String email, long versionStamp) {
+            this.userId = userId;
+            this.email = email;
+            this.versionStamp = versionStamp;
+            this.roleMask = 0L;
+            this.encodable = true;
+        }
+
+        void addRoleBit(long bit) {
+            encodable &= bit != 0L;
+            roleMask |= bit;
+        }
+
+        void flushTo(OffHeapPrincipalTable table) {
+            if (email != null && encodable) {
+                table.put(email, userId, roleMask, versionStamp);
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.demo.authservice.security;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * BCrypt password encoder that also verifies imported legacy hashes.
+ *
+ * <p>New passwords are encoded with the wrapped BCrypt encoder, exactly as before.
+ * A legacy hash imported from another system is stored as
+ * {@code {sha256}<bcrypt(hex digest)>} (see {@link LegacyPasswordDigest}); on
+ * login the raw password is digested the same way and checked against the BCrypt
+ * part, so users keep their password without the weak digest ever being stored.</p>
+ */
+public class WrappingPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder bcrypt;
+
+    public WrappingPasswordEncoder(PasswordEncoder bcrypt) {
+        this.bcrypt = bcrypt;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return bcrypt.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        LegacyPasswordDigest digest = LegacyPasswordDigest.fromStoredHash(encodedPassword);
+        if (digest == null) {
+            return bcrypt.matches(rawPassword, encodedPassword);
+        }
+        return bcrypt.matches(digest.digestHex(rawPassword), encodedPassword.substring(digest.prefix().length()));
+    }
+
+    // Stored form of a legacy hex digest
+    public String wrap(LegacyPasswordDigest digest, String legacyHash) {
+        return digest.prefix() + bcrypt.encode(digest.normalize(legacyHash));
+    }
+}
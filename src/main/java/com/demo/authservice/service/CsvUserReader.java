@@ -0,0 +1,145 @@
+package com.demo.authservice.service;
+
+import com.demo.authservice.model.ImportRow;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Streaming reader of import CSV files (RFC 4180: quoted fields, doubled quotes,
+ * line breaks inside quotes, CRLF or LF).
+ *
+ * <p>The first record is a header naming the columns, in any order:
+ * {@code username}, {@code email}, {@code password} (required) and
+ * {@code password_format}, {@code roles} (optional). Only one record is held in
+ * memory at a time.</p>
+ */
+public class CsvUserReader implements Closeable {
+
+    private static final List<String> REQUIRED_COLUMNS = List.of("username", "email", "password");
+
+    private final BufferedReader reader;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private final StringBuilder field = new StringBuilder();
+    private long rowNumber;
+    private boolean endOfInput;
+
+    public CsvUserReader(Reader reader) throws IOException {
+        this.reader = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+
+        List<String> header = readRecord();
+        if (header == null) {
+            throw new IllegalArgumentException("Import file is empty");
+        }
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String column : REQUIRED_COLUMNS) {
+            if (!columns.containsKey(column)) {
+                throw new IllegalArgumentException("Import file has no '" + column + "' column");
+            }
+        }
+    }
+
+    // Skips data rows already committed by an earlier run
+    public void skip(long rows) throws IOException {
+        List<String> record;
+        while (rowNumber < rows && (record = readRecord()) != null) {
+            if (!isBlank(record)) {
+                rowNumber++;
+            }
+        }
+    }
+
+    // Up to maxRows rows; empty once the file is exhausted
+    public List<ImportRow> next(int maxRows) throws IOException {
+        List<ImportRow> rows = new ArrayList<>(maxRows);
+        List<String> record;
+        while (rows.size() < maxRows && (record = readRecord()) != null) {
+            if (isBlank(record)) {
+                continue;
+            }
+            rowNumber++;
+            rows.add(new ImportRow(rowNumber,
+                    column(record, "username"),
+                    column(record, "email"),
+                    column(record, "password"),
+                    column(record, "password_format"),
+                    column(record, "roles")));
+        }
+        return rows;
+    }
+
+    private static boolean isBlank(List<String> record) {
+        return record.size() == 1 && record.get(0).isEmpty();
+    }
+
+    private String column(List<String> record, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index);
+        return value.isEmpty() ? null : value;
+    }
+
+    private List<String> readRecord() throws IOException {
+        if (endOfInput) {
+            return null;
+        }
+
+        List<String> record = new ArrayList<>();
+        field.setLength(0);
+        boolean quoted = false;
+        boolean any = false;
+
+        while (true) {
+            int c = reader.read();
+            if (c < 0) {
+                endOfInput = true;
+                if (!any) {
+                    return null;
+                }
+                record.add(field.toString());
+                return record;
+            }
+            any = true;
+
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    if (reader.read() == '"') {
+                        field.append('"');
+                    } else {
+                        reader.reset();
+                        quoted = false;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                record.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                record.add(field.toString());
+                return record;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,47 @@
+package com.demo.authservice.service;
+
+
+import com.demo.authservice.entity.OutboxEventEntity;
+import com.demo.authservice.event.UserEvent;
+import com.demo.authservice.event.UserEventSerializer;
+import com.demo.authservice.repository.OutboxEventRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Writes events to the transactional outbox.
+ *
+ * <p>Must be called inside the transaction that performs the user change, so
+ * the event is stored if and only if that change commits. Publishing happens
+ * later in {@link com.demo.authservice.kafka.OutboxRelay}. Events are encoded
+ * with the configured {@link UserEventSerializer}, keyed by user id and routed
+ * to the topic of their {@link com.demo.authservice.event.UserEventType}.</p>
+ */
+
+@Service
+public class OutboxService {
+
+    private final OutboxEventRepository outboxRepository;
+    private final UserEventSerializer eventSerializer;
+
+    public OutboxService(OutboxEventRepository outboxRepository, UserEventSerializer eventSerializer) {
+        this.outboxRepository = outboxRepository;
+        this.eventSerializer = eventSerializer;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(UserEvent userEvent) {
+        OutboxEventEntity event = OutboxEventEntity.builder()
+                .topic(userEvent.type().topic())
+                .messageKey(String.valueOf(userEvent.userId()))
+                .payload(eventSerializer.serialize(userEvent))
+                .createdDate(LocalDateTime.now(ZoneOffset.UTC))
+                .build();
+
+        outboxRepository.save(event);
+    }
+}
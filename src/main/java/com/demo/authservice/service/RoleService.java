@@ -1,14 +1,21 @@
 package com.demo.authservice.service;
 
 
+import com.demo.authservice.cache.CacheInvalidator;
+import com.demo.authservice.config.DataSourcePool;
+import com.demo.authservice.config.DataSourcePoolContext;
 import com.demo.authservice.entity.RoleEntity;
 import com.demo.authservice.exception.InvalidRequestException;
 import com.demo.authservice.exception.ResourceAlreadyExistsException;
 import com.demo.authservice.mapper.RoleMapper;
 import com.demo.authservice.model.AdminStatsResponse;
 import com.demo.authservice.model.AssignRoleRequest;
+import com.demo.authservice.observability.AuthPhase;
+import com.demo.authservice.observability.PhaseTracker;
 import com.demo.authservice.repository.RoleRepository;
 import com.demo.authservice.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 
@@ -20,7 +27,9 @@ import java.util.List;
 import java.util.Set;
 import java.util.HashMap;
 
+// Admin-only: created on the first admin request instead of at startup
 @Service
+@Lazy
 public class RoleService {
 
     private final RoleRepository roleRepository;
@@ -29,15 +38,22 @@ public class RoleService {
 
     private final RoleMapper roleMapper;
 
-    public RoleService(RoleRepository roleRepo, UserRepository userRepository, RoleMapper roleMapper) {
+    private final CacheInvalidator cacheInvalidator;
+
+    private final PhaseTracker phaseTracker;
+
+    public RoleService(RoleRepository roleRepo, UserRepository userRepository, RoleMapper roleMapper,
+                       CacheInvalidator cacheInvalidator, PhaseTracker phaseTracker) {
         this.roleRepository = roleRepo;
         this.userRepository = userRepository;
         this.roleMapper = roleMapper;
+        this.cacheInvalidator = cacheInvalidator;
+        this.phaseTracker = phaseTracker;
     }
 
     @PreAuthorize("hasRole('ADMIN')")
+    @Timed(value = "auth.operation", extraTags = {"operation", "create_roles"})
     public List<String> createRoles(AssignRoleRequest request) {
-
         Set<String> roleNames = request.getRoleNames();
         if (roleNames == null || roleNames.isEmpty()) {
             throw new InvalidRequestException("roleNames cannot be empty");
@@ -45,17 +61,22 @@ public class RoleService {
 
         List<String> savedRoles = new ArrayList<>();
 
-        for (String roleName : roleNames) {
+        try (DataSourcePoolContext.Scope ignored = DataSourcePoolContext.use(DataSourcePool.ADMIN)) {
+            for (String roleName : roleNames) {
 
-            if (roleRepository.existsByName(roleName)) {
-                throw new ResourceAlreadyExistsException("Role already exists: " + roleName);
-            }
+                if (phaseTracker.track(AuthPhase.DB_READ, () -> roleRepository.existsByName(roleName))) {
+                    throw new ResourceAlreadyExistsException("Role already exists: " + roleName);
+                }
 
-            RoleEntity roleEntity = roleMapper.toEntity(roleName);
-            RoleEntity savedRole = roleRepository.save(roleEntity);
+                RoleEntity roleEntity = roleMapper.toEntity(roleName);
+                RoleEntity savedRole = phaseTracker.track(AuthPhase.DB_WRITE, () -> roleRepository.save(roleEntity));
 
-            // Add the saved role name to the response list
-            savedRoles.add(savedRole.getName());
+                // Add the saved role name to the response list
+                savedRoles.add(savedRole.getName());
+            }
+        } finally {
+            // Roles saved before a failure must become visible as well
+            cacheInvalidator.rolesChanged();
         }
 
         return savedRoles;
@@ -63,12 +84,17 @@ public class RoleService {
 
 
     @PreAuthorize("hasRole('ADMIN')")
+    @Timed(value = "auth.operation", extraTags = {"operation", "admin_stats"})
     public AdminStatsResponse getAdminStats() {
+        List<UserRepository.LastLogin> users;
 
-        long totalUsers = userRepository.count();
+        // Reporting runs on the admin pool so it never competes with token validation
+        try (DataSourcePoolContext.Scope ignored = DataSourcePoolContext.use(DataSourcePool.ADMIN)) {
+            users = phaseTracker.track(AuthPhase.DB_READ, () -> userRepository.findAllLastLogins());
+        }
 
         Map<String, ZonedDateTime> lastLoginTimes = new HashMap<>();
-        userRepository.findAll().forEach(user -> {
+        users.forEach(user -> {
             ZonedDateTime lastLogin = user.getLastLogin() != null
                     ? user.getLastLogin()
                     : ZonedDateTime.now(ZoneOffset.UTC);
@@ -76,7 +102,7 @@ public class RoleService {
         });
 
         AdminStatsResponse response = new AdminStatsResponse();
-        response.setTotalUsers(totalUsers);
+        response.setTotalUsers(users.size());
         response.setLastLoginTimes(lastLoginTimes);
 
         return response;
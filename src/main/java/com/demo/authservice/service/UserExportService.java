@@ -0,0 +1,265 @@
+package com.demo.authservice.service;
+
+import com.demo.authservice.config.DataSourcePool;
+import com.demo.authservice.config.DataSourcePoolContext;
+import com.demo.authservice.model.UserExportFormat;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams every user to an admin as NDJSON or CSV.
+ *
+ * <p>One forward-only query on the bulk pool reads users joined with their role
+ * names, ordered by user id, with {@code auth.export.fetch-size} rows per round
+ * trip. Consecutive rows of the same user are folded into one record and written
+ * straight to the response, so memory stays flat whatever the number of users.
+ * On MySQL the fetch size is only honoured with {@code useCursorFetch=true}
+ * (set on the bulk pool in the {@code local} and {@code prod} profiles); without it the
+ * driver buffers the whole result.</p>
+ *
+ * <p>Timestamps are written as ISO-8601 instants; the columns hold UTC values
+ * ({@code hibernate.jdbc.time_zone=UTC}).</p>
+ *
+ * <p>The streamed body runs after the service call returns, so it is timed here as
+ * {@code auth.export} (tags {@code format}, {@code outcome}) rather than with {@code @Timed}.</p>
+ */
+// Admin-only: created on the first export instead of at startup
+@Service
+@Lazy
+public class UserExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserExportService.class);
+
+    private static final String EXPORT_QUERY = "SELECT u.id, u.username, u.email, u.last_login, u.created_date, r.name "
+            + "FROM users u "
+            + "LEFT JOIN user_roles ur ON ur.user_id = u.id "
+            + "LEFT JOIN roles r ON r.id = ur.role_id "
+            + "ORDER BY u.id";
+
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+    private static final String CSV_HEADER = "id,username,email,roles,last_login,created_date";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    public UserExportService(DataSource dataSource, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                             @Value("${auth.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    // Authorized when called; the returned body runs later on an MVC async thread
+    @PreAuthorize("hasRole('ADMIN')")
+    public StreamingResponseBody exportUsers(UserExportFormat format, boolean gzip) {
+        return out -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            String outcome = "failure";
+            try {
+                export(format, gzip, out);
+                outcome = "success";
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            } finally {
+                sample.stop(Timer.builder("auth.export")
+                        .description("User export latency, including streaming the response")
+                        .tag("format", format.name().toLowerCase())
+                        .tag("outcome", outcome)
+                        .register(meterRegistry));
+            }
+        };
+    }
+
+    private void export(UserExportFormat format, boolean gzip, OutputStream out) {
+        try {
+            OutputStream target = gzip ? new GZIPOutputStream(out, GZIP_BUFFER_SIZE) : out;
+            RecordWriter writer = format == UserExportFormat.CSV ? new CsvWriter(target) : new NdjsonWriter(target);
+            ExportCursor cursor = new ExportCursor(writer);
+            Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+
+            // Export runs on the bulk pool so a long dump never holds auth connections
+            try (DataSourcePoolContext.Scope ignored = DataSourcePoolContext.use(DataSourcePool.BULK)) {
+                jdbcTemplate.query(EXPORT_QUERY, rs -> {
+                    long userId = rs.getLong(1);
+                    if (userId != cursor.userId) {
+                        cursor.flush();
+                        cursor.start(userId, rs.getString(2), rs.getString(3),
+                                rs.getTimestamp(4, utc), rs.getTimestamp(5, utc));
+                    }
+                    String role = rs.getString(6);
+                    if (role != null) {
+                        cursor.roles.add(role);
+                    }
+                });
+            }
+            cursor.flush();
+            writer.finish();
+            if (target instanceof GZIPOutputStream gzipStream) {
+                gzipStream.finish();
+            }
+            out.flush();
+
+            log.info("Exported {} users as {}", cursor.exported, format);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String instant(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toInstant().toString() : null;
+    }
+
+    // User being assembled from consecutive export rows
+    private static final class ExportCursor {
+        private final RecordWriter writer;
+        private final List<String> roles = new ArrayList<>();
+        private long userId = -1L;
+        private String username;
+        private String email;
+        private String lastLogin;
+        private String createdDate;
+        private long exported;
+
+        ExportCursor(RecordWriter writer) {
+            this.writer = writer;
+        }
+
+        void start(long userId, String username, String email, Timestamp lastLogin, Timestamp createdDate) {
+            this.userId = userId;
+            this.username = username;
+            this.email = email;
+            this.lastLogin = instant(lastLogin);
+            this.createdDate = instant(createdDate);
+            this.roles.clear();
+        }
+
+        void flush() {
+            if (email == null) {
+                return;
+            }
+            try {
+                writer.write(userId, username, email, roles, lastLogin, createdDate);
+            } catch (IOException e) {
+                // Client went away: abort the query instead of reading the rest of the table
+                throw new UncheckedIOException(e);
+            }
+            exported++;
+            email = null;
+        }
+    }
+
+    private interface RecordWriter {
+        void write(long id, String username, String email, List<String> roles,
+                   String lastLogin, String createdDate) throws IOException;
+
+        void finish() throws IOException;
+    }
+
+    // One JSON object per line
+    private final class NdjsonWriter implements RecordWriter {
+        private final JsonGenerator json;
+
+        NdjsonWriter(OutputStream out) throws IOException {
+            this.json = objectMapper.getFactory().createGenerator(out);
+            this.json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Records are terminated by '\n' below instead of Jackson's root value separator
+            this.json.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(long id, String username, String email, List<String> roles,
+                          String lastLogin, String createdDate) throws IOException {
+            json.writeStartObject();
+            json.writeNumberField("id", id);
+            json.writeStringField("username", username);
+            json.writeStringField("email", email);
+            json.writeArrayFieldStart("roles");
+            for (String role : roles) {
+                json.writeString(role);
+            }
+            json.writeEndArray();
+            json.writeStringField("lastLogin", lastLogin);
+            json.writeStringField("createdDate", createdDate);
+            json.writeEndObject();
+            json.writeRaw('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            json.flush();
+        }
+    }
+
+    // RFC 4180; roles are separated by ';' within their field
+    private static final class CsvWriter implements RecordWriter {
+        private final Writer csv;
+
+        CsvWriter(OutputStream out) throws IOException {
+            this.csv = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            this.csv.write(CSV_HEADER);
+            this.csv.write("\r\n");
+        }
+
+        @Override
+        public void write(long id, String username, String email, List<String> roles,
+                          String lastLogin, String createdDate) throws IOException {
+            csv.write(Long.toString(id));
+            csv.write(',');
+            field(username);
+            csv.write(',');
+            field(email);
+            csv.write(',');
+            field(String.join(";", roles));
+            csv.write(',');
+            field(lastLogin);
+            csv.write(',');
+            field(createdDate);
+            csv.write("\r\n");
+        }
+
+        private void field(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                csv.write(value);
+                return;
+            }
+            csv.write('"');
+            csv.write(value.replace("\"", "\"\""));
+            csv.write('"');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            csv.flush();
+        }
+    }
+}
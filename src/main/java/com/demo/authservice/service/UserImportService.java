@@ -0,0 +1,559 @@
+package com.demo.authservice.service;
+
+import com.demo.authservice.config.DataSourcePool;
+import com.demo.authservice.config.DataSourcePoolContext;
+import com.demo.authservice.entity.RoleEntity;
+import com.demo.authservice.entity.UserImportJobEntity;
+import com.demo.authservice.exception.InvalidRequestException;
+import com.demo.authservice.exception.ResourceNotFoundException;
+import com.demo.authservice.mapper.UserImportJobMapper;
+import com.demo.authservice.model.ImportRow;
+import com.demo.authservice.model.UserImportJobResponse;
+import com.demo.authservice.model.UserImportStatus;
+import com.demo.authservice.repository.RoleRepository;
+import com.demo.authservice.repository.UserImportJobRepository;
+import com.demo.authservice.security.LegacyPasswordDigest;
+import com.demo.authservice.security.WrappingPasswordEncoder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Imports users from a legacy system's CSV export.
+ *
+ * <p>The upload is spooled by {@link UserImportSpool} and imported by one
+ * background thread, batch by batch ({@code auth.import.batch-size} rows):</p>
+ *
+ * <ol>
+ *   <li>{@link CsvUserReader} streams the next batch from the file.</li>
+ *   <li>Rows are validated and their passwords hashed on a fork-join pool of
+ *       {@code auth.import.parallelism} threads. Plain passwords are BCrypt-hashed,
+ *       BCrypt hashes are kept, and legacy digests are wrapped by
+ *       {@link WrappingPasswordEncoder}. The next batch is hashed while the current
+ *       one is written.</li>
+ *   <li>Duplicates are checked with one {@code IN} query per batch, then users and
+ *       their roles are written with JDBC batch inserts. The job checkpoint is updated
+ *       in the same transaction.</li>
+ * </ol>
+ *
+ * <p>All database work runs on the bulk pool, and hashing threads are capped below
+ * the core count, so logins and token validation keep their pool and CPU. Invalid
+ * and duplicate rows are written to {@code <job>.errors.csv} and counted in
+ * {@code auth.import.rows}. A failed or interrupted job is resumed from its
+ * checkpoint, on the node holding the spooled file.</p>
+ *
+ * <p>Imported users are not published as registration events.</p>
+ */
+// Admin-only: created on the first import request instead of at startup
+@Service
+@Lazy
+public class UserImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserImportService.class);
+
+    private static final String IMPORTED_BY = "user-import";
+    private static final String DEFAULT_ROLE = "ROLE_USER";
+    private static final String PLAIN = "plain";
+    private static final String BCRYPT = "bcrypt";
+    private static final int MIN_PASSWORD_LENGTH = 6;
+    private static final int MAX_COLUMN_LENGTH = 100;
+    private static final int MAX_FAILURE_REASON_LENGTH = 1000;
+    private static final int PROGRESS_LOG_INTERVAL = 100;
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+    private static final Pattern BCRYPT_HASH = Pattern.compile("^\\$2[aby]?\\$\\d{2}\\$[./A-Za-z0-9]{53}$");
+
+    private static final String INSERT_USER = "INSERT INTO users "
+            + "(username, email, password, created_by, created_date, modified_by, modified_date) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_USER_ROLE = "INSERT INTO user_roles (user_id, role_id) VALUES (?, ?)";
+
+    private final UserImportJobRepository jobRepository;
+    private final RoleRepository roleRepository;
+    private final UserImportJobMapper jobMapper;
+    private final WrappingPasswordEncoder passwordEncoder;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UserImportSpool spool;
+    private final int batchSize;
+    private final int parallelism;
+    private final Counter importedRows;
+    private final Counter duplicateRows;
+    private final Counter invalidRows;
+
+    // One import at a time; jobs submitted meanwhile wait in order
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "user-import");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Set<String> activeJobs = ConcurrentHashMap.newKeySet();
+    private volatile boolean stopping;
+
+    public UserImportService(UserImportJobRepository jobRepository,
+                             RoleRepository roleRepository,
+                             UserImportJobMapper jobMapper,
+                             WrappingPasswordEncoder passwordEncoder,
+                             DataSource dataSource,
+                             TransactionTemplate transactionTemplate,
+                             MeterRegistry meterRegistry,
+                             UserImportSpool spool,
+                             @Value("${auth.import.batch-size:500}") int batchSize,
+                             @Value("${auth.import.parallelism:0}") int parallelism) {
+        this.jobRepository = jobRepository;
+        this.roleRepository = roleRepository;
+        this.jobMapper = jobMapper;
+        this.passwordEncoder = passwordEncoder;
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        this.transactionTemplate = transactionTemplate;
+        this.spool = spool;
+        this.batchSize = batchSize;
+        this.parallelism = parallelism > 0
+                ? parallelism
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.importedRows = rowCounter(meterRegistry, "imported");
+        this.duplicateRows = rowCounter(meterRegistry, "duplicate");
+        this.invalidRows = rowCounter(meterRegistry, "invalid");
+    }
+
+    private static Counter rowCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("auth.import.rows")
+                .description("User import rows by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    // Authorized before the upload is read, so only admins can fill the spool directory
+    @PreAuthorize("hasRole('ADMIN')")
+    public UserImportJobResponse startImport(InputStream csv) throws IOException {
+        String jobId = UUID.randomUUID().toString();
+        Path source = spool.spool(jobId, csv);
+
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        UserImportJobEntity job = UserImportJobEntity.builder()
+                .id(jobId)
+                .status(UserImportStatus.QUEUED)
+                .sourceFile(source.toString())
+                .createdBy(SecurityContextHolder.getContext().getAuthentication().getName())
+                .createdDate(now)
+                .modifiedDate(now)
+                .build();
+
+        try (DataSourcePoolContext.Scope ignored = DataSourcePoolContext.use(DataSourcePool.ADMIN)) {
+            jobRepository.save(job);
+        }
+        activeJobs.add(jobId);
+        submit(jobId);
+        return jobMapper.toDto(job);
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    public UserImportJobResponse getImport(String jobId) {
+        return jobMapper.toDto(findJob(jobId));
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    public UserImportJobResponse resumeImport(String jobId) {
+        // Reserved before anything else, so concurrent resumes cannot both queue the job
+        if (!activeJobs.add(jobId)) {
+            throw new InvalidRequestException("Import " + jobId + " is already queued or running");
+        }
+        try {
+            // Read after reserving: a run that just finished has already committed its status
+            UserImportJobEntity job = findJob(jobId);
+            if (job.getStatus() == UserImportStatus.COMPLETED) {
+                throw new InvalidRequestException("Import " + jobId + " is already completed");
+            }
+            if (!Files.isReadable(Path.of(job.getSourceFile()))) {
+                throw new InvalidRequestException("Import " + jobId + " has no upload on this node; "
+                        + "it was uploaded to another node or has expired");
+            }
+
+            UserImportJobEntity queued = updateJob(jobId, j -> j.setStatus(UserImportStatus.QUEUED));
+            submit(jobId);
+            return jobMapper.toDto(queued);
+        } catch (RuntimeException e) {
+            activeJobs.remove(jobId);
+            throw e;
+        }
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    public Resource getErrorReport(String jobId) {
+        findJob(jobId);
+        Path errors = spool.errorFile(jobId);
+        if (!Files.isReadable(errors)) {
+            throw new ResourceNotFoundException("No error report for import " + jobId + " on this node");
+        }
+        return new FileSystemResource(errors);
+    }
+
+    private UserImportJobEntity findJob(String jobId) {
+        try (DataSourcePoolContext.Scope ignored = DataSourcePoolContext.use(DataSourcePool.ADMIN)) {
+            return jobRepository.findById(jobId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Import not found: " + jobId));
+        }
+    }
+
+    // The caller has already added the job to activeJobs; run() removes it
+    private void submit(String jobId) {
+        runner.execute(() -> run(jobId));
+    }
+
+    private void run(String jobId) {
+        long start = System.nanoTime();
+        ForkJoinPool hashingPool = new ForkJoinPool(parallelism);
+
+        try (DataSourcePoolContext.Scope ignored = DataSourcePoolContext.use(DataSourcePool.BULK)) {
+            // Never run a completed import again: its upload has been deleted
+            if (findJob(jobId).getStatus() == UserImportStatus.COMPLETED) {
+                log.info("Import {} is already completed; skipping", jobId);
+                return;
+            }
+            UserImportJobEntity job = updateJob(jobId, j -> {
+                j.setStatus(UserImportStatus.RUNNING);
+                j.setFailureReason(null);
+            });
+            Map<String, Long> roleIds = loadRoleIds();
+            long batches = 0;
+
+            try (CsvUserReader reader = new CsvUserReader(
+                         Files.newBufferedReader(Path.of(job.getSourceFile()), StandardCharsets.UTF_8));
+                 Writer errors = spool.appendErrors(jobId)) {
+
+                reader.skip(job.getRowsProcessed());
+                ForkJoinTask<List<PreparedRow>> pending = prepareAsync(hashingPool, reader.next(batchSize), roleIds);
+
+                while (pending != null) {
+                    if (stopping) {
+                        UserImportJobEntity interrupted = updateJob(jobId, j -> j.setStatus(UserImportStatus.INTERRUPTED));
+                        log.info("Import {} interrupted after row {}", jobId, interrupted.getRowsProcessed());
+                        return;
+                    }
+
+                    List<PreparedRow> prepared = pending.join();
+                    // The next batch is hashed while this one is written
+                    pending = prepareAsync(hashingPool, reader.next(batchSize), roleIds);
+
+                    persist(jobId, prepared, errors);
+                    if (++batches % PROGRESS_LOG_INTERVAL == 0) {
+                        log.info("Import {} committed {} rows", jobId, prepared.get(prepared.size() - 1).rowNumber());
+                    }
+                }
+            }
+
+            UserImportJobEntity done = updateJob(jobId, j -> j.setStatus(UserImportStatus.COMPLETED));
+            // The upload holds passwords and is not needed once every row is committed
+            spool.delete(Path.of(done.getSourceFile()));
+            log.info("Import {} completed in {} s: {} imported, {} duplicate, {} invalid", jobId,
+                    TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start),
+                    done.getRowsImported(), done.getRowsDuplicate(), done.getRowsInvalid());
+        } catch (Exception e) {
+            log.error("Import {} failed; resume it once the cause is fixed", jobId, e);
+            String reason = String.valueOf(e.getMessage());
+            try (DataSourcePoolContext.Scope ignored = DataSourcePoolContext.use(DataSourcePool.BULK)) {
+                updateJob(jobId, j -> {
+                    j.setStatus(UserImportStatus.FAILED);
+                    j.setFailureReason(reason.length() > MAX_FAILURE_REASON_LENGTH
+                            ? reason.substring(0, MAX_FAILURE_REASON_LENGTH)
+                            : reason);
+                });
+            } catch (RuntimeException updateFailure) {
+                log.error("Could not mark import {} as failed", jobId, updateFailure);
+            }
+        } finally {
+            hashingPool.shutdown();
+            activeJobs.remove(jobId);
+        }
+    }
+
+    private UserImportJobEntity updateJob(String jobId, Consumer<UserImportJobEntity> change) {
+        return transactionTemplate.execute(status -> {
+            UserImportJobEntity job = jobRepository.findById(jobId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Import not found: " + jobId));
+            change.accept(job);
+            job.setModifiedDate(LocalDateTime.now(ZoneOffset.UTC));
+            return job;
+        });
+    }
+
+    private Map<String, Long> loadRoleIds() {
+        Map<String, Long> roleIds = new HashMap<>();
+        for (RoleEntity role : roleRepository.findAll()) {
+            roleIds.put(role.getName(), role.getId());
+        }
+        return roleIds;
+    }
+
+    // ---------------------------------------------------------------------
+    // Validation and hashing (fork-join pool)
+    // ---------------------------------------------------------------------
+
+    private ForkJoinTask<List<PreparedRow>> prepareAsync(ForkJoinPool pool, List<ImportRow> rows,
+                                                        Map<String, Long> roleIds) {
+        if (rows.isEmpty()) {
+            return null;
+        }
+        // A parallel stream started inside the pool runs on the pool's workers only
+        return pool.submit(() -> rows.parallelStream()
+                .map(row -> prepare(row, roleIds))
+                .toList());
+    }
+
+    private PreparedRow prepare(ImportRow row, Map<String, Long> roleIds) {
+        String username = row.username() != null ? row.username().trim() : null;
+        String email = row.email() != null ? row.email().trim() : null;
+
+        if (username == null || username.isEmpty()) {
+            return PreparedRow.invalid(row, "username is required");
+        }
+        if (username.length() > MAX_COLUMN_LENGTH) {
+            return PreparedRow.invalid(row, "username is longer than " + MAX_COLUMN_LENGTH + " characters");
+        }
+        if (email == null || email.length() > MAX_COLUMN_LENGTH || !EMAIL.matcher(email).matches()) {
+            return PreparedRow.invalid(row, "email is not valid");
+        }
+        if (row.password() == null) {
+            return PreparedRow.invalid(row, "password is required");
+        }
+
+        List<Long> userRoleIds = new ArrayList<>();
+        for (String roleName : (row.roles() != null ? row.roles() : DEFAULT_ROLE).split(";")) {
+            if (roleName.isBlank()) {
+                continue;
+            }
+            Long roleId = roleIds.get(roleName.trim());
+            if (roleId == null) {
+                return PreparedRow.invalid(row, "unknown role " + roleName.trim());
+            }
+            userRoleIds.add(roleId);
+        }
+
+        String format = row.passwordFormat() != null ? row.passwordFormat().trim().toLowerCase(Locale.ROOT) : PLAIN;
+        String password;
+        if (format.equals(PLAIN)) {
+            if (row.password().length() < MIN_PASSWORD_LENGTH) {
+                return PreparedRow.invalid(row, "password must be at least " + MIN_PASSWORD_LENGTH + " characters");
+            }
+            password = passwordEncoder.encode(row.password());
+        } else if (format.equals(BCRYPT)) {
+            if (!BCRYPT_HASH.matcher(row.password()).matches()) {
+                return PreparedRow.invalid(row, "password is not a BCrypt hash");
+            }
+            password = row.password();
+        } else {
+            LegacyPasswordDigest digest = LegacyPasswordDigest.fromId(format);
+            if (digest == null) {
+                return PreparedRow.invalid(row, "unknown password_format " + row.passwordFormat());
+            }
+            if (!digest.isValidHash(row.password())) {
+                return PreparedRow.invalid(row, "password is not a hex " + digest.id() + " digest");
+            }
+            password = passwordEncoder.wrap(digest, row.password());
+        }
+
+        return new PreparedRow(row.rowNumber(), username, email, password, userRoleIds, null);
+    }
+
+    // ---------------------------------------------------------------------
+    // Duplicate checks and batched writes (bulk pool)
+    // ---------------------------------------------------------------------
+
+    private void persist(String jobId, List<PreparedRow> rows, Writer errors) throws IOException {
+        List<PreparedRow> rejected = new ArrayList<>();
+        List<String> reasons = new ArrayList<>();
+        Map<String, PreparedRow> candidates = new HashMap<>();
+
+        for (PreparedRow row : rows) {
+            if (row.error() != null) {
+                rejected.add(row);
+                reasons.add(row.error());
+            } else if (candidates.putIfAbsent(emailKey(row.email()), row) != null) {
+                rejected.add(row);
+                reasons.add("email appears earlier in the file");
+            }
+        }
+        long invalid = rows.stream().filter(row -> row.error() != null).count();
+
+        // Same comparison as the unique index on users.email, which is case-insensitive on MySQL
+        for (String existing : findExistingEmails(candidates.values().stream().map(PreparedRow::email).toList())) {
+            PreparedRow row = candidates.remove(emailKey(existing));
+            if (row != null) {
+                rejected.add(row);
+                reasons.add("email already exists");
+            }
+        }
+
+        List<PreparedRow> inserts = new ArrayList<>(candidates.values());
+        long duplicate = rejected.size() - invalid;
+        long lastRow = rows.get(rows.size() - 1).rowNumber();
+
+        // Users, their roles and the checkpoint commit together
+        transactionTemplate.executeWithoutResult(status -> {
+            insertUsers(inserts);
+            insertUserRoles(inserts);
+            UserImportJobEntity job = jobRepository.findById(jobId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Import not found: " + jobId));
+            job.setRowsProcessed(lastRow);
+            job.setRowsImported(job.getRowsImported() + inserts.size());
+            job.setRowsDuplicate(job.getRowsDuplicate() + duplicate);
+            job.setRowsInvalid(job.getRowsInvalid() + invalid);
+            job.setModifiedDate(LocalDateTime.now(ZoneOffset.UTC));
+        });
+
+        importedRows.increment(inserts.size());
+        duplicateRows.increment(duplicate);
+        invalidRows.increment(invalid);
+
+        for (int i = 0; i < rejected.size(); i++) {
+            PreparedRow row = rejected.get(i);
+            errors.write(row.rowNumber() + "," + csvField(row.email()) + "," + csvField(reasons.get(i)) + "\r\n");
+        }
+        errors.flush();
+    }
+
+    private List<String> findExistingEmails(List<String> emails) {
+        if (emails.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.queryForList("SELECT email FROM users WHERE email IN (:emails)",
+                Map.of("emails", emails), String.class);
+    }
+
+    private void insertUsers(List<PreparedRow> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        Timestamp now = Timestamp.from(Instant.now());
+
+        jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_USER, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                PreparedRow row = rows.get(i);
+                ps.setString(1, row.username());
+                ps.setString(2, row.email());
+                ps.setString(3, row.password());
+                ps.setString(4, IMPORTED_BY);
+                ps.setTimestamp(5, now, utc);
+                ps.setString(6, IMPORTED_BY);
+                ps.setTimestamp(7, now, utc);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        });
+    }
+
+    // Generated ids are read back with one query instead of per-row generated keys
+    private void insertUserRoles(List<PreparedRow> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        Map<String, Long> userIds = new HashMap<>();
+        jdbcTemplate.query("SELECT id, email FROM users WHERE email IN (:emails)",
+                Map.of("emails", rows.stream().map(PreparedRow::email).toList()),
+                rs -> {
+                    userIds.put(emailKey(rs.getString(2)), rs.getLong(1));
+                });
+
+        List<long[]> userRoles = new ArrayList<>();
+        for (PreparedRow row : rows) {
+            Long userId = userIds.get(emailKey(row.email()));
+            for (Long roleId : new HashSet<>(row.roleIds())) {
+                userRoles.add(new long[]{userId, roleId});
+            }
+        }
+
+        jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_USER_ROLE, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setLong(1, userRoles.get(i)[0]);
+                ps.setLong(2, userRoles.get(i)[1]);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return userRoles.size();
+            }
+        });
+    }
+
+    private static String emailKey(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        // The running job stops after its current batch and can be resumed later
+        stopping = true;
+        runner.shutdown();
+        if (!runner.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("User import did not stop within 30 seconds");
+        }
+    }
+
+    // Validated row with its encoded password, or the reason it was rejected
+    private record PreparedRow(long rowNumber, String username, String email, String password,
+                               List<Long> roleIds, String error) {
+
+        static PreparedRow invalid(ImportRow row, String error) {
+            return new PreparedRow(row.rowNumber(), row.username(), row.email(), null, List.of(), error);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.demo.authservice.service;
+
+import com.demo.authservice.config.DataSourcePool;
+import com.demo.authservice.config.DataSourcePoolContext;
+import com.demo.authservice.entity.UserImportJobEntity;
+import com.demo.authservice.exception.InvalidRequestException;
+import com.demo.authservice.repository.UserImportJobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Node-local files of user imports in {@code auth.import.directory}: the spooled
+ * upload ({@code <job>.csv}) and the error report ({@code <job>.errors.csv}).
+ *
+ * <ul>
+ *   <li>The directory and files are created readable by the service user only
+ *       (on POSIX file systems), since uploads hold passwords and password digests.</li>
+ *   <li>Uploads larger than {@code auth.import.max-upload-size} are rejected.</li>
+ *   <li>The upload is deleted once its job completes. Files of jobs that have not
+ *       changed for {@code auth.import.retention} (abandoned failed or interrupted
+ *       uploads, old error reports) are deleted every
+ *       {@code auth.import.cleanup-interval-ms}.</li>
+ * </ul>
+ */
+
+@Component
+public class UserImportSpool {
+
+    private static final Logger log = LoggerFactory.getLogger(UserImportSpool.class);
+
+    private static final String SOURCE_SUFFIX = ".csv";
+    private static final String ERRORS_SUFFIX = ".errors.csv";
+    private static final boolean POSIX = FileSystems.getDefault().supportedFileAttributeViews().contains("posix");
+
+    private final UserImportJobRepository jobRepository;
+    private final Path directory;
+    private final DataSize maxUploadSize;
+    private final Duration retention;
+
+    public UserImportSpool(UserImportJobRepository jobRepository,
+                           @Value("${auth.import.directory:${java.io.tmpdir}/auth-service/import}") String directory,
+                           @Value("${auth.import.max-upload-size:100MB}") DataSize maxUploadSize,
+                           @Value("${auth.import.retention:7d}") Duration retention) {
+        this.jobRepository = jobRepository;
+        this.directory = Path.of(directory);
+        this.maxUploadSize = maxUploadSize;
+        this.retention = retention;
+    }
+
+    public Path sourceFile(String jobId) {
+        return directory.resolve(jobId + SOURCE_SUFFIX);
+    }
+
+    public Path errorFile(String jobId) {
+        return directory.resolve(jobId + ERRORS_SUFFIX);
+    }
+
+    /**
+     * Copies the upload to the job's source file and starts its error report.
+     *
+     * @throws InvalidRequestException if the upload exceeds {@code auth.import.max-upload-size}
+     */
+    public Path spool(String jobId, InputStream upload) throws IOException {
+        Path source = createOwnerOnly(sourceFile(jobId));
+        try (OutputStream out = Files.newOutputStream(source, StandardOpenOption.WRITE)) {
+            byte[] buffer = new byte[64 * 1024];
+            long total = 0;
+            int read;
+            while ((read = upload.read(buffer)) != -1) {
+                total += read;
+                if (total > maxUploadSize.toBytes()) {
+                    throw new InvalidRequestException("Import file is larger than " + maxUploadSize.toMegabytes() + " MB");
+                }
+                out.write(buffer, 0, read);
+            }
+        } catch (IOException | RuntimeException e) {
+            delete(source);
+            throw e;
+        }
+
+        Files.writeString(createOwnerOnly(errorFile(jobId)), "row,email,reason\r\n", StandardCharsets.UTF_8);
+        return source;
+    }
+
+    public Writer appendErrors(String jobId) throws IOException {
+        Path errors = errorFile(jobId);
+        if (!Files.exists(errors)) {
+            createOwnerOnly(errors);
+        }
+        return Files.newBufferedWriter(errors, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+    }
+
+    public void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Cannot delete import file {}", file, e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${auth.import.cleanup-interval-ms:3600000}")
+    public void purgeExpired() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        Instant cutoff = Instant.now().minus(retention);
+
+        List<Path> files;
+        try (Stream<Path> listed = Files.list(directory)) {
+            // Uploads and error reports both end in .csv
+            files = listed.filter(file -> file.getFileName().toString().endsWith(SOURCE_SUFFIX)).toList();
+        } catch (IOException e) {
+            log.warn("Cannot list import directory {}", directory, e);
+            return;
+        }
+
+        try (DataSourcePoolContext.Scope ignored = DataSourcePoolContext.use(DataSourcePool.BULK)) {
+            for (Path file : files) {
+                if (isExpired(file, cutoff)) {
+                    log.info("Deleting expired import file {}", file);
+                    delete(file);
+                }
+            }
+        }
+    }
+
+    // Expired once neither the file nor its job (a running job updates it every batch) changed since the cutoff
+    private boolean isExpired(Path file, Instant cutoff) {
+        try {
+            if (Files.getLastModifiedTime(file).compareTo(FileTime.from(cutoff)) > 0) {
+                return false;
+            }
+        } catch (IOException e) {
+            return false;
+        }
+        String name = file.getFileName().toString();
+        String jobId = name.substring(0, name.indexOf('.'));
+        Optional<UserImportJobEntity> job = jobRepository.findById(jobId);
+        return job.isEmpty()
+                || job.get().getModifiedDate().isBefore(LocalDateTime.ofInstant(cutoff, ZoneOffset.UTC));
+    }
+
+    private Path createOwnerOnly(Path file) throws IOException {
+        if (!POSIX) {
+            Files.createDirectories(directory);
+            return Files.createFile(file);
+        }
+        Files.createDirectories(directory, ownerOnly("rwx------"));
+        return Files.createFile(file, ownerOnly("rw-------"));
+    }
+
+    private static FileAttribute<?> ownerOnly(String permissions) {
+        return PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString(permissions));
+    }
+}
@@ -1,25 +1,39 @@
 package com.demo.authservice.service;
 
 
+import com.demo.authservice.cache.CacheNames;
+import com.demo.authservice.cache.CacheInvalidator;
+import com.demo.authservice.cache.CoalescingUserLoader;
+import com.demo.authservice.config.DataSourcePool;
+import com.demo.authservice.config.DataSourcePoolContext;
 import com.demo.authservice.entity.RoleEntity;
 import com.demo.authservice.entity.UserEntity;
+import com.demo.authservice.event.UserEvent;
+import com.demo.authservice.event.UserEventType;
 import com.demo.authservice.exception.EmailAlreadyExistsException;
 import com.demo.authservice.exception.InvalidCredentialsException;
 import com.demo.authservice.exception.ResourceNotFoundException;
-import com.demo.authservice.kafka.KafkaProducerService;
+import com.demo.authservice.kafka.LoginEventAggregator;
 import com.demo.authservice.model.AssignRoleRequest;
 import com.demo.authservice.model.UserLoginRequest;
 import com.demo.authservice.model.UserRegisterRequest;
 import com.demo.authservice.model.UserResponse;
+import com.demo.authservice.observability.AuthPhase;
+import com.demo.authservice.observability.PhaseTracker;
 
 import com.demo.authservice.mapper.UserMapper;
 import com.demo.authservice.repository.RoleRepository;
 import com.demo.authservice.repository.UserRepository;
 import com.demo.authservice.security.JwtService;
+import com.demo.authservice.security.PrincipalStore;
 
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 
 import java.time.ZoneOffset;
@@ -34,66 +48,97 @@ public class UserService {
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final UserMapper userMapper;
-    private final KafkaProducerService kafkaProducer;
-
-    public UserService(UserRepository userRepo, RoleRepository roleRepo, PasswordEncoder passwordEncoder, JwtService jwtService, UserMapper userMapper, KafkaProducerService kafkaProducer) {
+    private final OutboxService outboxService;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheInvalidator cacheInvalidator;
+    private final CoalescingUserLoader userLoader;
+    private final ObjectProvider<PrincipalStore> principalStore;
+    private final LoginEventAggregator loginAggregator;
+    private final PhaseTracker phaseTracker;
+
+    public UserService(UserRepository userRepo, RoleRepository roleRepo, PasswordEncoder passwordEncoder, JwtService jwtService, UserMapper userMapper, OutboxService outboxService, TransactionTemplate transactionTemplate, CacheInvalidator cacheInvalidator, CoalescingUserLoader userLoader, ObjectProvider<PrincipalStore> principalStore, ObjectProvider<LoginEventAggregator> loginAggregator, PhaseTracker phaseTracker) {
         this.userRepo = userRepo;
         this.roleRepo = roleRepo;
         this.passwordEncoder = passwordEncoder;
         this.jwtService = jwtService;
         this.userMapper = userMapper;
-        this.kafkaProducer = kafkaProducer;
+        this.outboxService = outboxService;
+        this.transactionTemplate = transactionTemplate;
+        this.cacheInvalidator = cacheInvalidator;
+        this.userLoader = userLoader;
+        this.principalStore = principalStore;
+        this.loginAggregator = loginAggregator.getIfAvailable();
+        this.phaseTracker = phaseTracker;
     }
 
-    public UserResponse register(UserRegisterRequest request) {
-
-        if (userRepo.existsByEmail(request.getEmail())) {
+    @CacheEvict(value = CacheNames.CURRENT_USER, key = "#request.email")
+    @Timed(value = "auth.operation", extraTags = {"operation", "register"})
+    public UserResponse register(UserRegisterRequest request, String sourceIp) {
+        if (phaseTracker.track(AuthPhase.DB_READ, () -> userRepo.existsByEmail(request.getEmail()))) {
             throw new EmailAlreadyExistsException("Email " + request.getEmail() + " already exists");
         }
 
         UserEntity userEntity = userMapper.toEntity(request);
 
-        userEntity.setPassword(passwordEncoder.encode(request.getPassword()));
+        // Hash before the transaction starts so no connection is held during BCrypt
+        userEntity.setPassword(phaseTracker.track(AuthPhase.PASSWORD_HASH,
+                () -> passwordEncoder.encode(request.getPassword())));
 
-        RoleEntity defaultRoleEntity = roleRepo.findByName("ROLE_USER")
-                .orElseThrow(() -> new ResourceNotFoundException("Default role USER not found"));
+        // User row and its event are committed together (transactional outbox)
+        UserEntity savedUserEntity = phaseTracker.track(AuthPhase.DB_WRITE, () -> transactionTemplate.execute(status -> {
+            RoleEntity defaultRoleEntity = roleRepo.findByName("ROLE_USER")
+                    .orElseThrow(() -> new ResourceNotFoundException("Default role USER not found"));
 
-        userEntity.getRoles().add(defaultRoleEntity);
+            userEntity.getRoles().add(defaultRoleEntity);
 
-        UserEntity savedUserEntity = userRepo.save(userEntity);
+            UserEntity saved = userRepo.save(userEntity);
+            phaseTracker.track(AuthPhase.EVENT_PUBLISH,
+                    () -> outboxService.enqueue(UserEvent.of(UserEventType.REGISTERED, saved, sourceIp)));
+            return saved;
+        }));
 
-        // Publish Kafka event
-        kafkaProducer.sendMessage("user-registration", savedUserEntity.getEmail());
+        principalStore.ifAvailable(store -> store.put(savedUserEntity));
 
         return userMapper.toDto(savedUserEntity);
     }
 
 
-    public String login(UserLoginRequest request) {
-
-        UserEntity userEntity = userRepo.findByEmail(request.getEmail())
+    @Timed(value = "auth.operation", extraTags = {"operation", "login"})
+    public String login(UserLoginRequest request, String sourceIp) {
+        UserEntity userEntity = phaseTracker.track(AuthPhase.DB_READ, () -> userRepo.findByEmail(request.getEmail()))
                 .orElseThrow(() -> new InvalidCredentialsException("Invalid email or password"));
 
-        if (!passwordEncoder.matches(request.getPassword(), userEntity.getPassword())) {
+        if (!phaseTracker.track(AuthPhase.PASSWORD_VERIFY,
+                () -> passwordEncoder.matches(request.getPassword(), userEntity.getPassword()))) {
             throw new InvalidCredentialsException("Invalid email or password");
         }
 
         userEntity.setLastLogin(ZonedDateTime.now(ZoneOffset.UTC));
-        userRepo.save(userEntity);
 
-        // Publish Kafka event
-        kafkaProducer.sendMessage("user-login", userEntity.getEmail());
+        UserEvent loginEvent = UserEvent.of(UserEventType.LOGIN, userEntity, sourceIp);
+
+        if (loginAggregator != null) {
+            // Login events are summarized per user and window instead of going through the outbox
+            phaseTracker.track(AuthPhase.DB_WRITE, () -> userRepo.save(userEntity));
+            phaseTracker.track(AuthPhase.EVENT_PUBLISH, () -> loginAggregator.record(loginEvent));
+        } else {
+            // last_login update and login event are committed together (transactional outbox)
+            phaseTracker.track(AuthPhase.DB_WRITE, () -> transactionTemplate.executeWithoutResult(status -> {
+                userRepo.save(userEntity);
+                phaseTracker.track(AuthPhase.EVENT_PUBLISH, () -> outboxService.enqueue(loginEvent));
+            }));
+        }
 
         return jwtService.generateToken(userEntity);
     }
 
 
-    @Cacheable(value = "currentUser", key = "#email")
+    @Cacheable(value = CacheNames.CURRENT_USER, key = "#email")
+    @Timed(value = "auth.operation", extraTags = {"operation", "current_user"})
     public UserResponse getCurrentUser(String email) {
-
         System.out.println("Fetching user from DB for: " + email); // optional logging to verify caching
 
-        UserEntity userEntity = userRepo.findByEmail(email)
+        UserEntity userEntity = phaseTracker.track(AuthPhase.DB_READ, () -> userLoader.findByEmail(email))
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         return userMapper.toDto(userEntity);
@@ -101,25 +146,34 @@ public class UserService {
 
 
     @PreAuthorize("hasRole('ADMIN')")
+    @Timed(value = "auth.operation", extraTags = {"operation", "assign_roles"})
     public void assignRoles(Long userId, AssignRoleRequest request) {
+        try (DataSourcePoolContext.Scope ignored = DataSourcePoolContext.use(DataSourcePool.ADMIN)) {
+            UserEntity userEntity = phaseTracker.track(AuthPhase.DB_READ, () -> userRepo.findById(userId))
+                    .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
-        UserEntity userEntity = userRepo.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-
-        Set<String> roleNames = request.getRoleNames();
-        // Clear all existing roles
-        userEntity.getRoles().clear();
+            Set<String> roleNames = request.getRoleNames();
+            // Clear all existing roles
+            userEntity.getRoles().clear();
 
-        for (String roleName : roleNames) {
-            RoleEntity roleEntity = roleRepo.findByName(roleName)
-                    .orElseThrow(() -> new ResourceNotFoundException("Role not found: " + roleName));
+            for (String roleName : roleNames) {
+                RoleEntity roleEntity = phaseTracker.track(AuthPhase.DB_READ, () -> roleRepo.findByName(roleName))
+                        .orElseThrow(() -> new ResourceNotFoundException("Role not found: " + roleName));
 
-            if (!userEntity.getRoles().contains(roleEntity)) {
-                userEntity.getRoles().add(roleEntity);
+                if (!userEntity.getRoles().contains(roleEntity)) {
+                    userEntity.getRoles().add(roleEntity);
+                }
             }
-        }
 
-        userRepo.save(userEntity);
+            // Role change and its event are committed together (transactional outbox)
+            phaseTracker.track(AuthPhase.DB_WRITE, () -> transactionTemplate.executeWithoutResult(status -> {
+                userRepo.save(userEntity);
+                phaseTracker.track(AuthPhase.EVENT_PUBLISH,
+                        () -> outboxService.enqueue(UserEvent.of(UserEventType.ROLES_CHANGED, userEntity, null)));
+            }));
+            // Also evicts the principal store, which refills on the next lookup
+            cacheInvalidator.userChanged(userId, userEntity.getEmail());
+        }
     }
 
 
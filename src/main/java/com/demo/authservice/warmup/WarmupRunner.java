@@ -0,0 +1,287 @@
+package com.demo.authservice.warmup;
+
+import com.demo.authservice.cache.CacheNames;
+import com.demo.authservice.config.DataSourcePool;
+import com.demo.authservice.config.DataSourcePoolContext;
+import com.demo.authservice.entity.RoleEntity;
+import com.demo.authservice.entity.UserEntity;
+import com.demo.authservice.mapper.UserMapper;
+import com.demo.authservice.model.UserLoginRequest;
+import com.demo.authservice.model.UserRegisterRequest;
+import com.demo.authservice.model.UserResponse;
+import com.demo.authservice.observability.PhaseTracker;
+import com.demo.authservice.repository.RoleRepository;
+import com.demo.authservice.repository.UserRepository;
+import com.demo.authservice.security.JwtService;
+import com.demo.authservice.security.PrincipalStore;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warms the node up before it reports ready.
+ *
+ * <p>Application runners finish before Spring Boot publishes
+ * {@code ReadinessState.ACCEPTING_TRAFFIC}, so {@code /actuator/health/readiness}
+ * (and the overall health) stays {@code OUT_OF_SERVICE} until this runner returns
+ * and load balancers only route to warm nodes.</p>
+ *
+ * <ul>
+ *   <li>Opens {@code minimum-idle} connections on every Hikari pool at once.</li>
+ *   <li>Loads all roles into the second-level cache and the role query cache.</li>
+ *   <li>Loads the {@code auth.warmup.principals} most recently active users into the
+ *       {@code currentUser} cache, the user-roles cache and, when enabled, the
+ *       off-heap {@link PrincipalStore}.</li>
+ *   <li>Runs token issue/verify, the mapper and JSON (de)serialization in rounds of
+ *       {@code auth.warmup.iterations} until a round triggers no more JIT compilation
+ *       (or {@code auth.warmup.max-duration} has passed), and BCrypt hash/verify
+ *       {@code auth.warmup.password-iterations} times, so the hot paths are compiled
+ *       before real traffic arrives.</li>
+ * </ul>
+ *
+ * <p>Warm-up tokens are issued and verified through {@link JwtService} but kept out
+ * of the {@code auth.phase} timers ({@link PhaseTracker#untimed(Runnable)}). A failing
+ * step is logged and skipped; it never prevents startup.</p>
+ */
+
+@Component
+@ConditionalOnProperty(name = "auth.warmup.enabled", havingValue = "true", matchIfMissing = true)
+public class WarmupRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmupRunner.class);
+
+    private static final int PRINCIPAL_BATCH_SIZE = 500;
+    private static final String WARMUP_PASSWORD = "warm-up-password";
+    // A round adding at most this much JIT time means the exercised code is compiled
+    private static final long SETTLED_COMPILATION_MILLIS = 1;
+
+    private final List<HikariDataSource> pools;
+    private final RoleRepository roleRepository;
+    private final UserRepository userRepository;
+    private final JwtService jwtService;
+    private final PasswordEncoder passwordEncoder;
+    private final UserMapper userMapper;
+    private final ObjectMapper objectMapper;
+    private final CacheManager cacheManager;
+    private final PrincipalStore principalStore; // null unless auth.principal-store.enabled
+    private final PhaseTracker phaseTracker;
+    private final int iterations;
+    private final Duration maxDuration;
+    private final int passwordIterations;
+    private final int principals;
+
+    public WarmupRunner(List<HikariDataSource> pools,
+                        RoleRepository roleRepository,
+                        UserRepository userRepository,
+                        JwtService jwtService,
+                        PasswordEncoder passwordEncoder,
+                        UserMapper userMapper,
+                        ObjectMapper objectMapper,
+                        CacheManager cacheManager,
+                        ObjectProvider<PrincipalStore> principalStore,
+                        PhaseTracker phaseTracker,
+                        @Value("${auth.warmup.iterations:500}") int iterations,
+                        @Value("${auth.warmup.max-duration:30s}") Duration maxDuration,
+                        @Value("${auth.warmup.password-iterations:10}") int passwordIterations,
+                        @Value("${auth.warmup.principals:1000}") int principals) {
+        this.pools = pools;
+        this.roleRepository = roleRepository;
+        this.userRepository = userRepository;
+        this.jwtService = jwtService;
+        this.passwordEncoder = passwordEncoder;
+        this.userMapper = userMapper;
+        this.objectMapper = objectMapper;
+        this.cacheManager = cacheManager;
+        this.principalStore = principalStore.getIfAvailable();
+        this.phaseTracker = phaseTracker;
+        this.iterations = iterations;
+        this.maxDuration = maxDuration;
+        this.passwordIterations = passwordIterations;
+        this.principals = principals;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+
+        step("connection pools", this::fillPools);
+        List<RoleEntity> roles = new ArrayList<>();
+        step("roles", () -> roles.addAll(loadRoles()));
+        step("recently active principals", this::loadRecentPrincipals);
+        step("token and mapper code", () -> phaseTracker.untimed(() -> exerciseTokens(roles)));
+        step("password hashing", this::exercisePasswords);
+
+        log.info("Warm-up finished in {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private void step(String name, Runnable work) {
+        long start = System.nanoTime();
+        try {
+            work.run();
+            log.info("Warm-up of {} took {} ms", name, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (RuntimeException e) {
+            log.warn("Warm-up of {} failed, continuing without it", name, e);
+        }
+    }
+
+    // Holding minimum-idle connections at once forces each pool to open that many
+    private void fillPools() {
+        for (HikariDataSource pool : pools) {
+            List<Connection> connections = new ArrayList<>();
+            try {
+                for (int i = 0; i < pool.getMinimumIdle(); i++) {
+                    connections.add(pool.getConnection());
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException("Could not open connections on " + pool.getPoolName(), e);
+            } finally {
+                connections.forEach(WarmupRunner::closeQuietly);
+            }
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            log.debug("Could not return warm-up connection", e);
+        }
+    }
+
+    // findAll fills the entity region, findByName/existsByName the role query region
+    private List<RoleEntity> loadRoles() {
+        List<RoleEntity> roles = roleRepository.findAll();
+        for (RoleEntity role : roles) {
+            roleRepository.findByName(role.getName());
+            roleRepository.existsByName(role.getName());
+        }
+        return roles;
+    }
+
+    private void loadRecentPrincipals() {
+        if (principals <= 0) {
+            return;
+        }
+
+        Cache currentUsers = cacheManager.getCache(CacheNames.CURRENT_USER);
+        int loaded = 0;
+
+        try (DataSourcePoolContext.Scope ignored = DataSourcePoolContext.use(DataSourcePool.BULK)) {
+            List<String> emails = userRepository.findRecentlyActiveEmails(PageRequest.of(0, principals));
+            for (int from = 0; from < emails.size(); from += PRINCIPAL_BATCH_SIZE) {
+                List<String> batch = emails.subList(from, Math.min(from + PRINCIPAL_BATCH_SIZE, emails.size()));
+                for (UserEntity user : userRepository.findByEmailIn(batch)) {
+                    if (currentUsers != null) {
+                        currentUsers.put(user.getEmail(), userMapper.toDto(user));
+                    }
+                    if (principalStore != null) {
+                        principalStore.put(user);
+                    }
+                    loaded++;
+                }
+            }
+        }
+
+        log.info("Warm-up loaded {} recently active principals", loaded);
+    }
+
+    private void exerciseTokens(List<RoleEntity> roles) {
+        UserEntity user = syntheticUser(roles);
+        UserRegisterRequest register = new UserRegisterRequest();
+        register.setUsername(user.getUsername());
+        register.setEmail(user.getEmail());
+        register.setPassword(WARMUP_PASSWORD);
+        UserLoginRequest login = new UserLoginRequest();
+        login.setEmail(user.getEmail());
+        login.setPassword(WARMUP_PASSWORD);
+
+        long deadline = System.nanoTime() + maxDuration.toNanos();
+        long compiled = compilationMillis();
+        int rounds = 0;
+        while (true) {
+            exerciseTokenRound(user, register, login);
+            rounds++;
+            long compiledAfter = compilationMillis();
+            if (compiled < 0 || compiledAfter - compiled <= SETTLED_COMPILATION_MILLIS
+                    || System.nanoTime() - deadline >= 0) {
+                break;
+            }
+            compiled = compiledAfter;
+        }
+        log.info("Warm-up ran {} rounds of {} token iterations", rounds, iterations);
+    }
+
+    private void exerciseTokenRound(UserEntity user, UserRegisterRequest register, UserLoginRequest login) {
+        try {
+            for (int i = 0; i < iterations; i++) {
+                String token = jwtService.generateToken(user);
+                if (!jwtService.isTokenValid(token, user.getEmail())
+                        || !user.getEmail().equals(jwtService.extractUsername(token))) {
+                    throw new IllegalStateException("Warm-up token did not verify");
+                }
+
+                UserResponse response = userMapper.toDto(user);
+                userMapper.toEntity(register);
+                objectMapper.readValue(objectMapper.writeValueAsString(response), UserResponse.class);
+                objectMapper.readValue(objectMapper.writeValueAsString(register), UserRegisterRequest.class);
+                objectMapper.readValue(objectMapper.writeValueAsString(login), UserLoginRequest.class);
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Warm-up JSON round trip failed", e);
+        }
+    }
+
+    // Total JIT compilation time of the JVM, or -1 if it is not measured
+    private static long compilationMillis() {
+        CompilationMXBean jit = ManagementFactory.getCompilationMXBean();
+        if (jit == null || !jit.isCompilationTimeMonitoringSupported()) {
+            return -1;
+        }
+        return jit.getTotalCompilationTime();
+    }
+
+    private void exercisePasswords() {
+        for (int i = 0; i < passwordIterations; i++) {
+            String hash = passwordEncoder.encode(WARMUP_PASSWORD);
+            passwordEncoder.matches(WARMUP_PASSWORD, hash);
+        }
+    }
+
+    // Never persisted; only carries the claims a real token would
+    private static UserEntity syntheticUser(List<RoleEntity> roles) {
+        Set<RoleEntity> userRoles = new HashSet<>(roles);
+        if (userRoles.isEmpty()) {
+            userRoles.add(RoleEntity.builder().id(1L).name("ROLE_USER").build());
+        }
+        return UserEntity.builder()
+                .id(0L)
+                .username("warmup")
+                .email("warmup@auth-service.local")
+                .password(WARMUP_PASSWORD)
+                .roles(userRoles)
+                .build();
+    }
+}
@@ -0,0 +1,10 @@
+CREATE TABLE outbox_events (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    topic VARCHAR(100) NOT NULL,
+    message_key VARCHAR(100) NOT NULL,
+    payload VARCHAR(4000) NOT NULL,
+    created_date DATETIME(6) NOT NULL,
+    sent_date DATETIME(6) NULL
+);
+
+CREATE INDEX idx_outbox_events_unsent ON outbox_events (sent_date, id);
@@ -0,0 +1 @@
+ALTER TABLE outbox_events MODIFY payload VARBINARY(4000) NOT NULL;
@@ -0,0 +1,13 @@
+CREATE TABLE user_import_jobs (
+    id VARCHAR(36) PRIMARY KEY,
+    status VARCHAR(20) NOT NULL,
+    source_file VARCHAR(500) NOT NULL,
+    rows_processed BIGINT NOT NULL,
+    rows_imported BIGINT NOT NULL,
+    rows_duplicate BIGINT NOT NULL,
+    rows_invalid BIGINT NOT NULL,
+    failure_reason VARCHAR(1000) NULL,
+    created_by VARCHAR(100),
+    created_date DATETIME(6) NOT NULL,
+    modified_date DATETIME(6) NOT NULL
+);
@@ -0,0 +1,7 @@
+CREATE TABLE outbox_relay_lease (
+    name VARCHAR(50) PRIMARY KEY,
+    owner VARCHAR(36) NULL,
+    locked_until DATETIME(6) NOT NULL
+);
+
+INSERT INTO outbox_relay_lease (name, owner, locked_until) VALUES ('outbox-relay', NULL, '1970-01-01 00:00:00');
@@ -0,0 +1,6 @@
+ALTER TABLE outbox_events ADD COLUMN attempts INT NOT NULL DEFAULT 0;
+ALTER TABLE outbox_events ADD COLUMN last_error VARCHAR(500) NULL;
+ALTER TABLE outbox_events ADD COLUMN parked_date DATETIME(6) NULL;
+
+DROP INDEX idx_outbox_events_unsent ON outbox_events;
+CREATE INDEX idx_outbox_events_unsent ON outbox_events (sent_date, parked_date, id);
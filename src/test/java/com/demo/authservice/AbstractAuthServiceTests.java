@@ -0,0 +1,75 @@
+package com.demo.authservice;
+
+import com.demo.authservice.entity.RoleEntity;
+import com.demo.authservice.entity.UserEntity;
+import com.demo.authservice.repository.RoleRepository;
+import com.demo.authservice.repository.UserRepository;
+import com.demo.authservice.security.JwtService;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Shared fixture for the Spring Boot integration tests.
+ *
+ * <p>Provides:
+ * <ul>
+ *     <li>An empty users table before every test</li>
+ *     <li>Roles created on first use</li>
+ *     <li>Users with the given roles, and bearer tokens for them</li>
+ * </ul>
+ *
+ * <p>Users get {@link #passwordHash} as their stored password; tests that log in
+ * replace it with a real BCrypt hash.</p>
+ */
+public abstract class AbstractAuthServiceTests {
+
+    @Autowired
+    protected UserRepository userRepository;
+
+    @Autowired
+    protected RoleRepository roleRepository;
+
+    @Autowired
+    protected JwtService jwtService;
+
+    protected String passwordHash = "hash";
+
+    @BeforeEach
+    protected void cleanDatabase() {
+        userRepository.deleteAll();
+    }
+
+    protected RoleEntity role(String roleName) {
+        return roleRepository.findByName(roleName)
+                .orElseGet(() -> {
+                    RoleEntity newRole = new RoleEntity();
+                    newRole.setName(roleName);
+                    return roleRepository.save(newRole);
+                });
+    }
+
+    // Not saved yet, so tests can set further fields first
+    protected UserEntity newUser(String email, String... roleNames) {
+        UserEntity user = new UserEntity();
+        user.setUsername(email.split("@")[0]);
+        user.setEmail(email);
+        user.setPassword(passwordHash);
+        Set<RoleEntity> roles = new HashSet<>();
+        for (String roleName : roleNames) {
+            roles.add(role(roleName));
+        }
+        user.setRoles(roles);
+        return user;
+    }
+
+    protected UserEntity createUser(String email, String... roleNames) {
+        return userRepository.save(newUser(email, roleNames));
+    }
+
+    protected String bearer(UserEntity user) {
+        return "Bearer " + jwtService.generateToken(user);
+    }
+}
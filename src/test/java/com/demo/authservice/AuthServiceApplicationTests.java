@@ -30,6 +30,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  *     <li>Assigning roles to users as ADMIN</li>
  *     <li>Ensuring forbidden access for non-admin users</li>
  *     <li>Admin statistics endpoint</li>
+ *     <li>Conditional GET of the current user with ETag / If-None-Match</li>
  * </ul>
  *
  * <p>This class uses MockMvc to simulate HTTP requests and verifies proper authentication,
@@ -186,5 +187,64 @@ public class AuthServiceApplicationTests {
                         .header("Authorization", "Bearer " + jwt))
                 .andExpect(status().isForbidden());
     }
+
+    // -------------------------------------------------------------
+    // TEST 7 — /users/me with matching If-None-Match => 304 without body
+    // -------------------------------------------------------------
+    @Test
+    void testCurrentUser_IfNoneMatch_NotModified() throws Exception {
+        UserEntity user = createUserWithRole("user@gmail.com", "ROLE_USER");
+        String jwt = generateJwt(user);
+
+        String etag = mockMvc.perform(get("/users/me")
+                        .header("Authorization", "Bearer " + jwt))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/users/me")
+                        .header("Authorization", "Bearer " + jwt)
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(header().string("Cache-Control", "no-cache, private"))
+                .andExpect(content().string(""));
+
+        mockMvc.perform(get("/users/me")
+                        .header("Authorization", "Bearer " + jwt)
+                        .header("If-None-Match", "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value("user@gmail.com"));
+    }
+
+    // -------------------------------------------------------------
+    // TEST 8 — role change => new ETag, old one no longer matches
+    // -------------------------------------------------------------
+    @Test
+    void testCurrentUser_RoleChange_ChangesEtag() throws Exception {
+        UserEntity admin = createUserWithRole("admin@gmail.com", "ROLE_ADMIN");
+        UserEntity user = createUserWithRole("user@gmail.com", "ROLE_USER");
+        String jwt = generateJwt(user);
+
+        String etag = mockMvc.perform(get("/users/me")
+                        .header("Authorization", "Bearer " + jwt))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(post("/users/" + user.getId() + "/roles")
+                        .header("Authorization", "Bearer " + generateJwt(admin))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                    {
+                                      "roleNames": ["ROLE_ADMIN"]
+                                    }
+                                """))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/users/me")
+                        .header("Authorization", "Bearer " + jwt)
+                        .header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.roles[0]").value("ROLE_ADMIN"));
+    }
 }
 
@@ -0,0 +1,272 @@
+package com.demo.authservice;
+
+import com.demo.authservice.entity.UserEntity;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Performance contract tests: SQL statement and allocation budgets for the hot paths.
+ *
+ * <p>Tests include:
+ * <ul>
+ *     <li>One principal query for an authenticated {@code /users/me} once caches are warm</li>
+ *     <li>Statement budgets for login and registration</li>
+ *     <li>Admin statistics in a constant number of statements, whatever the user count</li>
+ *     <li>Allocated bytes per token validation and per {@code /users/me} request</li>
+ * </ul>
+ *
+ * <p>Statements are recorded per thread by a datasource proxy around the routing
+ * data source; allocation is read from {@code ThreadMXBean}. The allocation budgets
+ * leave generous headroom, so only a clear regression fails them.</p>
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public class PerformanceContractTests extends AbstractAuthServiceTests {
+
+    private static final QueryRecorder QUERIES = new QueryRecorder();
+
+    private static final long TOKEN_VALIDATION_BYTES = 64 * 1024;
+    private static final long CURRENT_USER_REQUEST_BYTES = 1024 * 1024;
+
+    @TestConfiguration
+    static class QueryCountingConfig {
+
+        @Bean
+        static BeanPostProcessor queryCountingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource) {
+                        return ProxyDataSourceBuilder.create(dataSource)
+                                .name("query-counting")
+                                .listener(QUERIES)
+                                .build();
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    // Login tests need a real hash
+    @BeforeEach
+    void encodePassword() {
+        passwordHash = passwordEncoder.encode("password123");
+    }
+
+    // -------------------------------------------------------------
+    // TEST 1 — /users/me with warm caches => a single principal query
+    // -------------------------------------------------------------
+    @Test
+    void testCurrentUser_WarmCaches_SinglePrincipalQuery() throws Exception {
+        String bearer = bearer(createUser("perf@gmail.com", "ROLE_USER"));
+        mockMvc.perform(get("/users/me").header("Authorization", bearer)).andExpect(status().isOk());
+
+        QUERIES.reset();
+        mockMvc.perform(get("/users/me").header("Authorization", bearer)).andExpect(status().isOk());
+
+        assertThat(QUERIES.selectsFrom("users")).as(QUERIES.describe()).isEqualTo(1);
+        assertThat(QUERIES.writes()).as(QUERIES.describe()).isZero();
+        assertThat(QUERIES.total()).as(QUERIES.describe()).isLessThanOrEqualTo(2);
+    }
+
+    // -------------------------------------------------------------
+    // TEST 2 — login => user lookup, last_login update, one outbox row
+    // -------------------------------------------------------------
+    @Test
+    void testLogin_StatementBudget() throws Exception {
+        createUser("perf@gmail.com", "ROLE_USER");
+
+        QUERIES.reset();
+        mockMvc.perform(post("/users/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                    {
+                                      "email": "perf@gmail.com",
+                                      "password": "password123"
+                                    }
+                                """))
+                .andExpect(status().isOk());
+
+        assertThat(QUERIES.selectsFrom("users")).as(QUERIES.describe()).isLessThanOrEqualTo(2);
+        assertThat(QUERIES.updates("users")).as(QUERIES.describe()).isLessThanOrEqualTo(1);
+        assertThat(QUERIES.inserts("outbox_events")).as(QUERIES.describe()).isEqualTo(1);
+        assertThat(QUERIES.total()).as(QUERIES.describe()).isLessThanOrEqualTo(6);
+    }
+
+    // -------------------------------------------------------------
+    // TEST 3 — register => existence check, user row, one outbox row
+    // -------------------------------------------------------------
+    @Test
+    void testRegister_StatementBudget() throws Exception {
+        role("ROLE_USER");
+
+        QUERIES.reset();
+        mockMvc.perform(post("/users/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                    {
+                                      "username": "perf",
+                                      "email": "perf@gmail.com",
+                                      "password": "password123"
+                                    }
+                                """))
+                .andExpect(status().isCreated());
+
+        assertThat(QUERIES.inserts("users")).as(QUERIES.describe()).isEqualTo(1);
+        assertThat(QUERIES.inserts("outbox_events")).as(QUERIES.describe()).isEqualTo(1);
+        assertThat(QUERIES.total()).as(QUERIES.describe()).isLessThanOrEqualTo(6);
+    }
+
+    // -------------------------------------------------------------
+    // TEST 4 — admin stats => constant statements, no N+1 over users
+    // -------------------------------------------------------------
+    @Test
+    void testAdminStats_ConstantStatementsForManyUsers() throws Exception {
+        String bearer = bearer(createUser("admin@gmail.com", "ROLE_ADMIN"));
+        for (int i = 0; i < 25; i++) {
+            createUser("user" + i + "@gmail.com", "ROLE_USER");
+        }
+
+        QUERIES.reset();
+        mockMvc.perform(get("/roles/admin/stats").header("Authorization", bearer))
+                .andExpect(status().isOk());
+
+        assertThat(QUERIES.selectsFrom("users")).as(QUERIES.describe()).isLessThanOrEqualTo(2);
+        assertThat(QUERIES.total()).as(QUERIES.describe()).isLessThanOrEqualTo(3);
+    }
+
+    // -------------------------------------------------------------
+    // TEST 5 — token validation stays within its allocation budget
+    // -------------------------------------------------------------
+    @Test
+    void testTokenValidation_AllocationBudget() {
+        UserEntity user = createUser("perf@gmail.com", "ROLE_USER");
+        String token = jwtService.generateToken(user);
+
+        long perValidation = allocatedBytesPerCall(5_000, () -> jwtService.isTokenValid(token, user.getEmail()));
+
+        assertThat(perValidation).isLessThanOrEqualTo(TOKEN_VALIDATION_BYTES);
+    }
+
+    // -------------------------------------------------------------
+    // TEST 6 — authenticated /users/me stays within its allocation budget
+    // -------------------------------------------------------------
+    @Test
+    void testCurrentUser_AllocationBudget() {
+        String bearer = bearer(createUser("perf@gmail.com", "ROLE_USER"));
+
+        long perRequest = allocatedBytesPerCall(200, () ->
+                mockMvc.perform(get("/users/me").header("Authorization", bearer)).andExpect(status().isOk()));
+
+        assertThat(perRequest).isLessThanOrEqualTo(CURRENT_USER_REQUEST_BYTES);
+    }
+
+    @FunctionalInterface
+    private interface Call {
+        void run() throws Exception;
+    }
+
+    // Runs the call as warm-up first, then averages the bytes allocated by this thread
+    private static long allocatedBytesPerCall(int iterations, Call call) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+
+        try {
+            for (int i = 0; i < iterations; i++) {
+                call.run();
+            }
+            long before = threads.getCurrentThreadAllocatedBytes();
+            for (int i = 0; i < iterations; i++) {
+                call.run();
+            }
+            return (threads.getCurrentThreadAllocatedBytes() - before) / iterations;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Records the SQL executed on the current thread.
+     */
+    static final class QueryRecorder implements QueryExecutionListener {
+
+        private final ThreadLocal<List<String>> statements = ThreadLocal.withInitial(ArrayList::new);
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            for (QueryInfo queryInfo : queryInfoList) {
+                statements.get().add(queryInfo.getQuery().trim().toLowerCase(Locale.ROOT));
+            }
+        }
+
+        void reset() {
+            statements.get().clear();
+        }
+
+        long total() {
+            return statements.get().size();
+        }
+
+        long selectsFrom(String table) {
+            return count(sql -> sql.startsWith("select") && sql.contains(" from " + table + " "));
+        }
+
+        long inserts(String table) {
+            return count(sql -> sql.startsWith("insert into " + table + " "));
+        }
+
+        long updates(String table) {
+            return count(sql -> sql.startsWith("update " + table + " "));
+        }
+
+        long writes() {
+            return count(sql -> sql.startsWith("insert") || sql.startsWith("update") || sql.startsWith("delete"));
+        }
+
+        String describe() {
+            return "Executed SQL:\n" + String.join("\n", statements.get());
+        }
+
+        private long count(Predicate<String> matcher) {
+            return statements.get().stream().filter(matcher).count();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.demo.authservice;
+
+import com.demo.authservice.entity.UserEntity;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration tests for the streaming admin user export.
+ *
+ * <p>Tests include:
+ * <ul>
+ *     <li>NDJSON export with one line per user and roles folded from the join</li>
+ *     <li>Gzip-encoded CSV export</li>
+ *     <li>Forbidden for non-admin users</li>
+ * </ul>
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public class UserExportTests extends AbstractAuthServiceTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    // -------------------------------------------------------------
+    // TEST 1 — NDJSON export => one line per user with all roles
+    // -------------------------------------------------------------
+    @Test
+    void testExport_Ndjson_OneLinePerUser() throws Exception {
+        UserEntity admin = createUser("admin@gmail.com", "ROLE_ADMIN", "ROLE_USER");
+        createUser("user@gmail.com", "ROLE_USER");
+        createUser("norole@gmail.com");
+
+        MvcResult started = mockMvc.perform(get("/users/export")
+                        .header("Authorization", bearer(admin)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/x-ndjson;charset=UTF-8"))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(3);
+        assertThat(lines[0]).startsWith("{\"id\":" + admin.getId() + ",")
+                .contains("\"email\":\"admin@gmail.com\"")
+                .contains("\"ROLE_ADMIN\"")
+                .contains("\"ROLE_USER\"");
+        assertThat(lines[2]).contains("\"email\":\"norole@gmail.com\"").contains("\"roles\":[]");
+    }
+
+    // -------------------------------------------------------------
+    // TEST 2 — CSV export with Accept-Encoding: gzip => gzip body
+    // -------------------------------------------------------------
+    @Test
+    void testExport_CsvGzip() throws Exception {
+        UserEntity admin = createUser("admin@gmail.com", "ROLE_ADMIN");
+        createUser("user@gmail.com", "ROLE_USER");
+
+        MvcResult started = mockMvc.perform(get("/users/export")
+                        .param("format", "csv")
+                        .header("Authorization", bearer(admin))
+                        .header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        byte[] compressed = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        String csv;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            csv = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+
+        String[] lines = csv.split("\r\n");
+        assertThat(lines).hasSize(3);
+        assertThat(lines[0]).isEqualTo("id,username,email,roles,last_login,created_date");
+        assertThat(lines[2]).startsWith(userRepository.findByEmail("user@gmail.com").orElseThrow().getId()
+                + ",user,user@gmail.com,ROLE_USER,,");
+    }
+
+    // -------------------------------------------------------------
+    // TEST 3 — export as USER => 403
+    // -------------------------------------------------------------
+    @Test
+    void testExport_WithUserRole_ShouldFail403() throws Exception {
+        UserEntity user = createUser("user@gmail.com", "ROLE_USER");
+
+        mockMvc.perform(get("/users/export")
+                        .header("Authorization", bearer(user)))
+                .andExpect(status().isForbidden());
+    }
+}
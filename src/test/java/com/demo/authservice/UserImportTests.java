@@ -0,0 +1,319 @@
+package com.demo.authservice;
+
+import com.demo.authservice.entity.RoleEntity;
+import com.demo.authservice.entity.UserEntity;
+import com.demo.authservice.entity.UserImportJobEntity;
+import com.demo.authservice.model.UserImportStatus;
+import com.demo.authservice.repository.UserImportJobRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration tests for the admin CSV user import.
+ *
+ * <p>Tests include:
+ * <ul>
+ *     <li>Plain, BCrypt and legacy SHA-256 passwords imported, with duplicate and invalid rows reported</li>
+ *     <li>Upload deleted once the import completed; error report readable by the owner only</li>
+ *     <li>Login with the password behind an imported legacy digest</li>
+ *     <li>Forbidden for non-admin users</li>
+ *     <li>Resume of a failed import after its checkpoint; completed imports cannot be resumed</li>
+ *     <li>Concurrent resumes of one import queue it once and leave it completed</li>
+ *     <li>Uploads above the size limit rejected and not kept</li>
+ * </ul>
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public class UserImportTests extends AbstractAuthServiceTests {
+
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserImportJobRepository jobRepository;
+
+    @Value("${auth.import.directory}")
+    private String importDirectory;
+
+    private static String sha256Hex(String value) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                .digest(value.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    // Starts the import and waits until the job leaves QUEUED/RUNNING
+    private JsonNode importAndWait(String bearer, String csv) throws Exception {
+        String started = mockMvc.perform(post("/users/import")
+                        .header("Authorization", bearer)
+                        .contentType(TEXT_CSV)
+                        .content(csv))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getContentAsString();
+        return awaitJob(bearer, objectMapper.readTree(started).get("id").asText());
+    }
+
+    private JsonNode awaitJob(String bearer, String jobId) {
+        JsonNode[] job = new JsonNode[1];
+        await().atMost(Duration.ofSeconds(30)).until(() -> {
+            job[0] = objectMapper.readTree(mockMvc.perform(get("/users/import/" + jobId)
+                            .header("Authorization", bearer))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            String jobStatus = job[0].get("status").asText();
+            return !jobStatus.equals("QUEUED") && !jobStatus.equals("RUNNING");
+        });
+        return job[0];
+    }
+
+    // Saves a FAILED job with its upload spooled, as left by an interrupted run
+    private String failedJob(String csv, long rowsCommitted) throws Exception {
+        String jobId = UUID.randomUUID().toString();
+        Path source = Files.createDirectories(Path.of(importDirectory)).resolve(jobId + ".csv");
+        Files.writeString(source, csv);
+        LocalDateTime now = LocalDateTime.now();
+        jobRepository.save(UserImportJobEntity.builder()
+                .id(jobId)
+                .status(UserImportStatus.FAILED)
+                .sourceFile(source.toString())
+                .rowsProcessed(rowsCommitted)
+                .rowsImported(rowsCommitted)
+                .failureReason("Communications link failure")
+                .createdBy("admin@gmail.com")
+                .createdDate(now)
+                .modifiedDate(now)
+                .build());
+        return jobId;
+    }
+
+    // -------------------------------------------------------------
+    // TEST 1 — import => valid rows stored, duplicates and invalid rows reported
+    // -------------------------------------------------------------
+    @Test
+    void testImport_CountsAndErrorReport() throws Exception {
+        role("ROLE_USER");
+        UserEntity admin = createUser("admin@gmail.com", "ROLE_ADMIN");
+        String bcrypt = passwordEncoder.encode("bcrypt-pass");
+
+        String csv = "username,email,password,password_format,roles\r\n"
+                + "plain,plain@gmail.com,plain-pass,plain,ROLE_USER\r\n"
+                + "hashed,hashed@gmail.com," + bcrypt + ",bcrypt,ROLE_USER;ROLE_ADMIN\r\n"
+                + "legacy,legacy@gmail.com," + sha256Hex("legacy-pass") + ",sha256,\r\n"
+                + "again,PLAIN@gmail.com,plain-pass,plain,ROLE_USER\r\n"
+                + "admin,admin@gmail.com,admin-pass,plain,ROLE_USER\r\n"
+                + "broken,not-an-email,plain-pass,plain,ROLE_USER\r\n";
+
+        JsonNode job = importAndWait(bearer(admin), csv);
+
+        assertThat(job.get("status").asText()).isEqualTo("COMPLETED");
+        assertThat(job.get("rowsProcessed").asLong()).isEqualTo(6);
+        assertThat(job.get("rowsImported").asLong()).isEqualTo(3);
+        assertThat(job.get("rowsDuplicate").asLong()).isEqualTo(2);
+        assertThat(job.get("rowsInvalid").asLong()).isEqualTo(1);
+
+        UserEntity hashed = userRepository.findByEmail("hashed@gmail.com").orElseThrow();
+        assertThat(hashed.getPassword()).isEqualTo(bcrypt);
+        assertThat(hashed.getRoles()).extracting(RoleEntity::getName)
+                .containsExactlyInAnyOrder("ROLE_USER", "ROLE_ADMIN");
+        assertThat(userRepository.findByEmail("legacy@gmail.com").orElseThrow().getPassword())
+                .startsWith("{sha256}$2");
+
+        String jobId = job.get("id").asText();
+        Path directory = Path.of(importDirectory);
+        assertThat(directory.resolve(jobId + ".csv")).doesNotExist();
+        if (Files.getFileStore(directory).supportsFileAttributeView("posix")) {
+            assertThat(PosixFilePermissions.toString(Files.getPosixFilePermissions(directory.resolve(jobId + ".errors.csv"))))
+                    .isEqualTo("rw-------");
+        }
+
+        String errors = mockMvc.perform(get("/users/import/" + jobId + "/errors")
+                        .header("Authorization", bearer(admin)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        assertThat(errors.split("\r\n")).containsExactlyInAnyOrder(
+                "row,email,reason",
+                "4,PLAIN@gmail.com,email appears earlier in the file",
+                "5,admin@gmail.com,email already exists",
+                "6,not-an-email,email is not valid");
+    }
+
+    // -------------------------------------------------------------
+    // TEST 2 — legacy SHA-256 digest => login with the original password
+    // -------------------------------------------------------------
+    @Test
+    void testImport_LegacyDigest_LoginWithOriginalPassword() throws Exception {
+        role("ROLE_USER");
+        UserEntity admin = createUser("admin@gmail.com", "ROLE_ADMIN");
+
+        JsonNode job = importAndWait(bearer(admin), "email,username,password,password_format\n"
+                + "legacy@gmail.com,legacy," + sha256Hex("legacy-pass").toUpperCase() + ",SHA256\n");
+        assertThat(job.get("rowsImported").asLong()).isEqualTo(1);
+
+        mockMvc.perform(post("/users/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                    {
+                                      "email": "legacy@gmail.com",
+                                      "password": "legacy-pass"
+                                    }
+                                """))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/users/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                    {
+                                      "email": "legacy@gmail.com",
+                                      "password": "wrong-pass"
+                                    }
+                                """))
+                .andExpect(status().isUnauthorized());
+    }
+
+    // -------------------------------------------------------------
+    // TEST 3 — import as USER => 403
+    // -------------------------------------------------------------
+    @Test
+    void testImport_WithUserRole_ShouldFail403() throws Exception {
+        UserEntity user = createUser("user@gmail.com", "ROLE_USER");
+
+        mockMvc.perform(post("/users/import")
+                        .header("Authorization", bearer(user))
+                        .contentType(TEXT_CSV)
+                        .content("username,email,password\n"))
+                .andExpect(status().isForbidden());
+    }
+
+    // -------------------------------------------------------------
+    // TEST 4 — failed import => resumed after its checkpoint, then not resumable
+    // -------------------------------------------------------------
+    @Test
+    void testResume_FailedImport_ContinuesAfterCheckpoint() throws Exception {
+        role("ROLE_USER");
+        String bearer = bearer(createUser("admin@gmail.com", "ROLE_ADMIN"));
+
+        // As left by a run that committed two rows and then lost its database connection
+        String jobId = failedJob("username,email,password\n"
+                + "one,one@gmail.com,plain-pass\n"
+                + "\n"
+                + "two,two@gmail.com,plain-pass\n"
+                + "three,three@gmail.com,plain-pass\n"
+                + "four,four@gmail.com,plain-pass\n", 2);
+
+        mockMvc.perform(post("/users/import/" + jobId + "/resume").header("Authorization", bearer))
+                .andExpect(status().isAccepted());
+        JsonNode job = awaitJob(bearer, jobId);
+
+        assertThat(job.get("status").asText()).isEqualTo("COMPLETED");
+        assertThat(job.get("rowsProcessed").asLong()).isEqualTo(4);
+        assertThat(job.get("rowsImported").asLong()).isEqualTo(4);
+        assertThat(job.get("failureReason").isNull()).isTrue();
+        assertThat(userRepository.findByEmail("two@gmail.com")).isEmpty();
+        assertThat(userRepository.findByEmail("three@gmail.com")).isPresent();
+        assertThat(userRepository.findByEmail("four@gmail.com")).isPresent();
+
+        mockMvc.perform(post("/users/import/" + jobId + "/resume").header("Authorization", bearer))
+                .andExpect(status().isBadRequest());
+    }
+
+    // -------------------------------------------------------------
+    // TEST 5 — upload above auth.import.max-upload-size => 400, nothing spooled
+    // -------------------------------------------------------------
+    @Test
+    void testImport_UploadTooLarge_ShouldFail400() throws Exception {
+        UserEntity admin = createUser("admin@gmail.com", "ROLE_ADMIN");
+        long jobsBefore = jobRepository.count();
+
+        StringBuilder csv = new StringBuilder("username,email,password\n");
+        for (int i = 0; csv.length() <= 64 * 1024; i++) {
+            csv.append("user").append(i).append(",user").append(i).append("@gmail.com,plain-pass\n");
+        }
+
+        mockMvc.perform(post("/users/import")
+                        .header("Authorization", bearer(admin))
+                        .contentType(TEXT_CSV)
+                        .content(csv.toString()))
+                .andExpect(status().isBadRequest());
+
+        assertThat(jobRepository.count()).isEqualTo(jobsBefore);
+    }
+
+    // -------------------------------------------------------------
+    // TEST 6 — concurrent resumes => queued once, the import stays COMPLETED
+    // -------------------------------------------------------------
+    @Test
+    void testResume_Concurrent_QueuedOnce() throws Exception {
+        role("ROLE_USER");
+        String bearer = bearer(createUser("admin@gmail.com", "ROLE_ADMIN"));
+        String jobId = failedJob("username,email,password\n"
+                + "one,one@gmail.com,plain-pass\n"
+                + "two,two@gmail.com,plain-pass\n", 0);
+
+        int callers = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<Integer>> statuses = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                statuses.add(executor.submit(() -> {
+                    start.await();
+                    return mockMvc.perform(post("/users/import/" + jobId + "/resume")
+                                    .header("Authorization", bearer))
+                            .andReturn().getResponse().getStatus();
+                }));
+            }
+            start.countDown();
+
+            List<Integer> results = new ArrayList<>();
+            for (Future<Integer> status : statuses) {
+                results.add(status.get(30, TimeUnit.SECONDS));
+            }
+            assertThat(results).filteredOn(code -> code == 202).hasSize(1);
+            assertThat(results).filteredOn(code -> code != 202).containsOnly(400);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        JsonNode job = awaitJob(bearer, jobId);
+        assertThat(job.get("status").asText()).isEqualTo("COMPLETED");
+        assertThat(job.get("rowsImported").asLong()).isEqualTo(2);
+        assertThat(job.get("failureReason").isNull()).isTrue();
+    }
+}
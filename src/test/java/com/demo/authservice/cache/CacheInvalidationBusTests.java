@@ -0,0 +1,111 @@
+package com.demo.authservice.cache;
+
+import com.demo.authservice.model.UserResponse;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Integration tests for the Kafka cache invalidation bus against an embedded broker.
+ *
+ * <p>Tests include:
+ * <ul>
+ *     <li>Invalidations published by another node evict the local cache entry</li>
+ *     <li>Local user changes are published once per flush window, keyed by user id</li>
+ * </ul>
+ */
+@SpringBootTest(properties = {
+        "auth.cache.invalidation.enabled=true",
+        "auth.cache.invalidation.flush-interval-ms=500"
+})
+@EmbeddedKafka(partitions = 1, topics = CacheInvalidationBus.TOPIC,
+        bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+public class CacheInvalidationBusTests {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private CacheInvalidator cacheInvalidator;
+
+    @Autowired
+    private CacheInvalidationBus invalidationBus;
+
+    @Autowired
+    private KafkaTemplate<String, byte[]> kafkaTemplate;
+
+    @Autowired
+    private KafkaListenerEndpointRegistry listenerRegistry;
+
+    @Autowired
+    private EmbeddedKafkaBroker broker;
+
+    @BeforeEach
+    void waitForListener() {
+        ContainerTestUtils.waitForAssignment(
+                listenerRegistry.getListenerContainer(CacheInvalidationBus.LISTENER_ID), 1);
+    }
+
+    // -------------------------------------------------------------
+    // TEST 1 — invalidation from another node evicts local entry
+    // -------------------------------------------------------------
+    @Test
+    void testRemoteUserInvalidation_EvictsLocalEntry() {
+        Cache cache = cacheManager.getCache(CacheNames.CURRENT_USER);
+        cache.put("remote@gmail.com", new UserResponse());
+
+        kafkaTemplate.send(CacheInvalidationBus.TOPIC, "user:42", "U;other-node;42;remote@gmail.com".getBytes(StandardCharsets.UTF_8));
+
+        await().atMost(Duration.ofSeconds(10))
+                .untilAsserted(() -> assertThat(cache.get("remote@gmail.com")).isNull());
+    }
+
+    // -------------------------------------------------------------
+    // TEST 2 — a burst of local changes is published once
+    // -------------------------------------------------------------
+    @Test
+    void testLocalUserChange_PublishedOnceKeyedByUserId() {
+        Map<String, Object> consumerProps = KafkaTestUtils.consumerProps("bus-test", "false", broker);
+        consumerProps.put("auto.offset.reset", "earliest");
+
+        try (Consumer<String, String> consumer = new DefaultKafkaConsumerFactory<>(
+                consumerProps, new StringDeserializer(), new StringDeserializer()).createConsumer()) {
+            broker.consumeFromAnEmbeddedTopic(consumer, CacheInvalidationBus.TOPIC);
+
+            for (int i = 0; i < 5; i++) {
+                cacheInvalidator.userChanged(7L, "burst@gmail.com");
+            }
+
+            String expected = "U;" + invalidationBus.getNodeId() + ";7;burst@gmail.com";
+            long published = 0;
+            for (ConsumerRecord<String, String> record :
+                    KafkaTestUtils.getRecords(consumer, Duration.ofSeconds(5))) {
+                if (expected.equals(record.value())) {
+                    assertThat(record.key()).isEqualTo("user:7");
+                    published++;
+                }
+            }
+            assertThat(published).isEqualTo(1);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.demo.authservice.cache;
+
+import com.demo.authservice.entity.UserEntity;
+import com.demo.authservice.exception.ServiceOverloadedException;
+import com.demo.authservice.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for request coalescing.
+ *
+ * <p>Tests include:
+ * <ul>
+ *     <li>Concurrent user lookups of one email share a single query</li>
+ *     <li>A waiter gives up after the timeout with an overload rejection</li>
+ *     <li>A failed load is rethrown to every waiter and not remembered</li>
+ * </ul>
+ */
+public class SingleFlightTests {
+
+    private final CountDownLatch loadStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseLoad = new CountDownLatch(1);
+
+    // Blocks until the test releases it, so callers can pile up behind it
+    private <V> V blockingLoad(V value) {
+        loadStarted.countDown();
+        try {
+            releaseLoad.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return value;
+    }
+
+    private static Thread start(Runnable work) {
+        Thread thread = new Thread(work);
+        thread.start();
+        return thread;
+    }
+
+    // Waiters block in a timed get on the leader's future
+    private static void awaitWaiting(Thread thread) {
+        await().atMost(Duration.ofSeconds(5)).until(() -> thread.getState() == Thread.State.TIMED_WAITING);
+    }
+
+    // -------------------------------------------------------------
+    // TEST 1 — concurrent lookups of one email => one query
+    // -------------------------------------------------------------
+    @Test
+    void testFindByEmail_ConcurrentLookupsShareOneQuery() throws Exception {
+        UserRepository userRepository = mock(UserRepository.class);
+        UserEntity user = UserEntity.builder().id(1L).email("jane@gmail.com").build();
+        when(userRepository.findByEmail("jane@gmail.com")).thenAnswer(invocation -> blockingLoad(Optional.of(user)));
+        CoalescingUserLoader loader = new CoalescingUserLoader(userRepository, Duration.ofSeconds(5));
+
+        AtomicReference<Optional<UserEntity>> leaderResult = new AtomicReference<>();
+        AtomicReference<Optional<UserEntity>> waiterResult = new AtomicReference<>();
+        Thread leader = start(() -> leaderResult.set(loader.findByEmail("jane@gmail.com")));
+        loadStarted.await();
+        Thread waiter = start(() -> waiterResult.set(loader.findByEmail("jane@gmail.com")));
+        awaitWaiting(waiter);
+
+        releaseLoad.countDown();
+        leader.join();
+        waiter.join();
+
+        assertThat(leaderResult.get()).containsSame(user);
+        assertThat(waiterResult.get()).containsSame(user);
+        verify(userRepository, times(1)).findByEmail("jane@gmail.com");
+    }
+
+    // -------------------------------------------------------------
+    // TEST 2 — slow leader => waiter rejected as overloaded
+    // -------------------------------------------------------------
+    @Test
+    void testLoad_WaiterTimeout_RejectedAsOverloaded() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>(Duration.ofMillis(100));
+        Thread leader = start(() -> flight.load("key", () -> blockingLoad("value")));
+        loadStarted.await();
+
+        try {
+            assertThatThrownBy(() -> flight.load("key", () -> "unused"))
+                    .isInstanceOf(ServiceOverloadedException.class);
+        } finally {
+            releaseLoad.countDown();
+            leader.join();
+        }
+    }
+
+    // -------------------------------------------------------------
+    // TEST 3 — leader failure => rethrown to waiters, next load retries
+    // -------------------------------------------------------------
+    @Test
+    void testLoad_LeaderFailure_RethrownToWaiters() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>(Duration.ofSeconds(5));
+        AtomicInteger loads = new AtomicInteger();
+        AtomicReference<Throwable> leaderError = new AtomicReference<>();
+        AtomicReference<Throwable> waiterError = new AtomicReference<>();
+
+        Thread leader = start(() -> {
+            try {
+                flight.load("key", () -> {
+                    loads.incrementAndGet();
+                    blockingLoad(null);
+                    throw new IllegalStateException("database down");
+                });
+            } catch (RuntimeException e) {
+                leaderError.set(e);
+            }
+        });
+        loadStarted.await();
+        Thread waiter = start(() -> {
+            try {
+                flight.load("key", () -> {
+                    loads.incrementAndGet();
+                    return "unused";
+                });
+            } catch (RuntimeException e) {
+                waiterError.set(e);
+            }
+        });
+        awaitWaiting(waiter);
+
+        releaseLoad.countDown();
+        leader.join();
+        waiter.join();
+
+        assertThat(leaderError.get()).isInstanceOf(IllegalStateException.class).hasMessage("database down");
+        assertThat(waiterError.get()).isSameAs(leaderError.get());
+        assertThat(loads).hasValue(1);
+
+        // Failures are not cached: the next caller loads again
+        assertThat(flight.load("key", () -> "recovered")).isEqualTo("recovered");
+    }
+}
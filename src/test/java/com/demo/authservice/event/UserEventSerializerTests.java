@@ -0,0 +1,77 @@
+package com.demo.authservice.event;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for user event serialization.
+ *
+ * <p>Tests include:
+ * <ul>
+ *     <li>Round trips through the binary and JSON formats</li>
+ *     <li>Binary encoding size against the JSON equivalent</li>
+ *     <li>Forward compatibility of the binary schema</li>
+ * </ul>
+ */
+public class UserEventSerializerTests {
+
+    private final BinaryUserEventSerializer binary = new BinaryUserEventSerializer();
+    private final JsonUserEventSerializer json = new JsonUserEventSerializer(Jackson2ObjectMapperBuilder.json().build());
+
+    private static UserEvent event(String sourceIp) {
+        return new UserEvent(UserEventType.LOGIN, 123456L, "someone@gmail.com",
+                Instant.now().truncatedTo(ChronoUnit.MILLIS), List.of("ROLE_ADMIN", "ROLE_USER"), sourceIp);
+    }
+
+    // -------------------------------------------------------------
+    // TEST 1 — both formats round-trip every field
+    // -------------------------------------------------------------
+    @Test
+    void testRoundTrip_BinaryAndJson() {
+        for (String ip : new String[]{"10.0.0.17", "2001:db8::1", null}) {
+            UserEvent event = event(ip);
+
+            assertThat(binary.deserialize(binary.serialize(event))).isEqualTo(event);
+            assertThat(json.deserialize(json.serialize(event))).isEqualTo(event);
+        }
+    }
+
+    // -------------------------------------------------------------
+    // TEST 2 — binary encoding is much smaller than JSON
+    // -------------------------------------------------------------
+    @Test
+    void testEncodedSize_BinarySmallerThanJson() {
+        UserEvent event = event("192.168.1.20");
+
+        int binarySize = binary.serialize(event).length;
+        int jsonSize = json.serialize(event).length;
+
+        assertThat(binarySize).isLessThan(jsonSize / 2);
+        assertThat(binary.serialize(event)[0]).isEqualTo((byte) BinaryUserEventSerializer.VERSION);
+        assertThat(json.serialize(event)[0]).isEqualTo((byte) '{');
+    }
+
+    // -------------------------------------------------------------
+    // TEST 3 — readers ignore fields appended by later versions
+    // -------------------------------------------------------------
+    @Test
+    void testBinary_IgnoresTrailingFieldsAndRejectsUnknownType() {
+        UserEvent event = event("10.0.0.1");
+        byte[] encoded = binary.serialize(event);
+
+        byte[] newer = new byte[encoded.length + 3];
+        System.arraycopy(encoded, 0, newer, 0, encoded.length);
+        newer[0] = (byte) (BinaryUserEventSerializer.VERSION + 1);
+        assertThat(binary.deserialize(newer)).isEqualTo(event);
+
+        encoded[1] = 99;
+        assertThatThrownBy(() -> binary.deserialize(encoded)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,143 @@
+package com.demo.authservice.kafka;
+
+import com.demo.authservice.observability.AuthFlightEvents;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the Kafka event publishing pipeline.
+ *
+ * <p>Tests include:
+ * <ul>
+ *     <li>Keyed delivery to an embedded broker with success metrics</li>
+ *     <li>Backpressure once the in-flight limit is reached</li>
+ *     <li>Retriable failures spilled to the journal, except for sends without spill</li>
+ * </ul>
+ */
+@SpringBootTest(properties = "auth.cache.invalidation.enabled=false")
+@EmbeddedKafka(partitions = 3, topics = KafkaProducerServiceTests.TOPIC,
+        bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+public class KafkaProducerServiceTests {
+
+    static final String TOPIC = "pipeline-test";
+
+    @Autowired
+    private KafkaProducerService kafkaProducer;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EmbeddedKafkaBroker broker;
+
+    // -------------------------------------------------------------
+    // TEST 1 — keyed messages reach the broker on one partition
+    // -------------------------------------------------------------
+    @Test
+    void testKeyedSend_DeliveredToSamePartitionAndTimed() throws Exception {
+        Map<String, Object> consumerProps = KafkaTestUtils.consumerProps("pipeline-test", "false", broker);
+        consumerProps.put("auto.offset.reset", "earliest");
+
+        SendResult<String, byte[]> first = kafkaProducer.sendMessage(TOPIC, "42", "first").get(10, TimeUnit.SECONDS);
+        SendResult<String, byte[]> second = kafkaProducer.sendMessage(TOPIC, "42", "second").get(10, TimeUnit.SECONDS);
+
+        assertThat(second.getRecordMetadata().partition()).isEqualTo(first.getRecordMetadata().partition());
+        assertThat(second.getRecordMetadata().offset()).isGreaterThan(first.getRecordMetadata().offset());
+
+        try (Consumer<String, String> consumer = new DefaultKafkaConsumerFactory<>(
+                consumerProps, new StringDeserializer(), new StringDeserializer()).createConsumer()) {
+            broker.consumeFromAnEmbeddedTopic(consumer, TOPIC);
+            ConsumerRecords<String, String> records = KafkaTestUtils.getRecords(consumer, Duration.ofSeconds(10), 2);
+            assertThat(records.records(TOPIC))
+                    .extracting(ConsumerRecord::key, ConsumerRecord::value, ConsumerRecord::offset)
+                    .containsSubsequence(
+                            tuple("42", "first", first.getRecordMetadata().offset()),
+                            tuple("42", "second", second.getRecordMetadata().offset()));
+        }
+
+        assertThat(meterRegistry.get("auth.kafka.send")
+                .tag("topic", TOPIC)
+                .tag("outcome", "success")
+                .timer()
+                .count()).isGreaterThanOrEqualTo(2);
+    }
+
+    // -------------------------------------------------------------
+    // TEST 2 — sends beyond the in-flight limit are rejected
+    // -------------------------------------------------------------
+    @Test
+    @SuppressWarnings("unchecked")
+    void testInFlightLimit_RejectsInsteadOfBuffering() {
+        KafkaTemplate<String, byte[]> template = mock(KafkaTemplate.class);
+        when(template.send(any(String.class), any(), any(byte[].class))).thenReturn(new CompletableFuture<>());
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        KafkaProducerService limited = new KafkaProducerService(template, registry, 1, Duration.ofMillis(10), null,
+                new AuthFlightEvents(false));
+
+        CompletableFuture<SendResult<String, byte[]>> pending = limited.sendMessage(TOPIC, "1", "a");
+        CompletableFuture<SendResult<String, byte[]>> rejected = limited.sendMessage(TOPIC, "2", "b");
+
+        assertThat(pending).isNotDone();
+        assertThat(rejected).isCompletedExceptionally();
+        assertThat(limited.inFlightCount()).isEqualTo(1);
+        assertThat(registry.get("auth.kafka.send").tag("outcome", "rejected").timer().count()).isEqualTo(1);
+    }
+
+    // -------------------------------------------------------------
+    // TEST 3 — retriable failure => spilled, unless sent without spill
+    // -------------------------------------------------------------
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRetriableFailure_SpilledOnlyWhenAllowed(@TempDir Path spillDirectory) throws Exception {
+        KafkaTemplate<String, byte[]> template = mock(KafkaTemplate.class);
+        when(template.send(any(String.class), any(), any(byte[].class)))
+                .thenAnswer(invocation -> CompletableFuture.failedFuture(new TimeoutException("broker down")));
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        SpillJournal journal = new SpillJournal(spillDirectory.toString(), DataSize.ofKilobytes(64),
+                DataSize.ofMegabytes(1), SpillJournal.FsyncPolicy.NEVER, registry);
+        KafkaProducerService producer = new KafkaProducerService(template, registry, 10, Duration.ofMillis(10),
+                journal, new AuthFlightEvents(false));
+
+        CompletableFuture<SendResult<String, byte[]>> unspilled = producer.sendWithoutSpill(TOPIC, "1", new byte[]{1});
+        assertThat(unspilled).isCompletedExceptionally();
+        assertThat(journal.depth()).isZero();
+
+        CompletableFuture<SendResult<String, byte[]>> spilled = producer.sendMessage(TOPIC, "1", "a");
+        assertThat(spilled.get(1, TimeUnit.SECONDS)).isNull();
+        assertThat(journal.depth()).isEqualTo(1);
+
+        // With a backlog in the journal, sends without spill still go to the broker
+        assertThat(producer.sendWithoutSpill(TOPIC, "1", new byte[]{2})).isCompletedExceptionally();
+        assertThat(journal.depth()).isEqualTo(1);
+    }
+}
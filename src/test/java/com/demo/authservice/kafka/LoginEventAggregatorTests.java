@@ -0,0 +1,63 @@
+package com.demo.authservice.kafka;
+
+import com.demo.authservice.event.BinaryUserEventSerializer;
+import com.demo.authservice.event.UserEvent;
+import com.demo.authservice.event.UserEventType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for login event aggregation.
+ *
+ * <p>Tests include:
+ * <ul>
+ *     <li>One summary per user per window with count and first/last login</li>
+ * </ul>
+ */
+public class LoginEventAggregatorTests {
+
+    @Test
+    void testFlush_EmitsOneSummaryPerUser() {
+        KafkaProducerService kafkaProducer = mock(KafkaProducerService.class);
+        BinaryUserEventSerializer serializer = new BinaryUserEventSerializer();
+        LoginEventAggregator aggregator = new LoginEventAggregator(kafkaProducer, serializer, new SimpleMeterRegistry());
+
+        Instant start = Instant.ofEpochMilli(1_700_000_000_000L);
+        for (int i = 0; i < 3; i++) {
+            aggregator.record(new UserEvent(UserEventType.LOGIN, 1L, "one@gmail.com",
+                    start.plusSeconds(i), List.of("ROLE_USER"), "10.0.0." + i));
+        }
+        aggregator.record(new UserEvent(UserEventType.LOGIN, 2L, "two@gmail.com",
+                start, List.of("ROLE_USER"), null));
+
+        aggregator.flush();
+
+        ArgumentCaptor<byte[]> payload = ArgumentCaptor.forClass(byte[].class);
+        verify(kafkaProducer).sendMessage(eq("user-login"), eq("1"), payload.capture());
+        verify(kafkaProducer, times(2)).sendMessage(eq("user-login"), anyString(),
+                any(byte[].class));
+
+        UserEvent summary = serializer.deserialize(payload.getValue());
+        assertThat(summary.type()).isEqualTo(UserEventType.LOGIN_SUMMARY);
+        assertThat(summary.count()).isEqualTo(3);
+        assertThat(summary.firstTimestamp()).isEqualTo(start);
+        assertThat(summary.timestamp()).isEqualTo(start.plusSeconds(2));
+        assertThat(summary.sourceIp()).isEqualTo("10.0.0.2");
+
+        aggregator.flush();
+        verify(kafkaProducer, times(2)).sendMessage(eq("user-login"), anyString(),
+                any(byte[].class));
+    }
+}
@@ -0,0 +1,179 @@
+package com.demo.authservice.kafka;
+
+import com.demo.authservice.entity.OutboxEventEntity;
+import com.demo.authservice.repository.OutboxEventRepository;
+import com.demo.authservice.repository.OutboxRelayLeaseRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.common.errors.NotEnoughReplicasException;
+import org.apache.kafka.common.errors.RecordTooLargeException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.notNull;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the outbox relay.
+ *
+ * <p>Tests include:
+ * <ul>
+ *     <li>Events of one key sent in order, one at a time</li>
+ *     <li>A failed event holds back later events of its key, which are retried in order</li>
+ *     <li>No relaying without the lease</li>
+ *     <li>Failures counted on the row; a row refused as non-retriable parked at the attempt limit</li>
+ *     <li>Retriable failures never park a row</li>
+ * </ul>
+ */
+public class OutboxRelayTests {
+
+    private final OutboxEventRepository outboxRepository = mock(OutboxEventRepository.class);
+    private final OutboxRelayLeaseRepository leaseRepository = mock(OutboxRelayLeaseRepository.class);
+    private final KafkaProducerService kafkaProducer = mock(KafkaProducerService.class);
+
+    private final List<String> sent = new ArrayList<>();
+    private final Map<String, RuntimeException> failing = new HashMap<>();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        when(leaseRepository.acquire(eq(OutboxRelay.LEASE), anyString(), any(), any())).thenReturn(1);
+        when(kafkaProducer.sendWithoutSpill(anyString(), anyString(), any(byte[].class))).thenAnswer(invocation -> {
+            String payload = new String(invocation.<byte[]>getArgument(2), StandardCharsets.UTF_8);
+            sent.add(payload);
+            return failing.containsKey(payload)
+                    ? CompletableFuture.failedFuture(failing.get(payload))
+                    : CompletableFuture.completedFuture(null);
+        });
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+        relay = new OutboxRelay(outboxRepository, leaseRepository, kafkaProducer, transactionTemplate, meterRegistry,
+                100, Duration.ofSeconds(1), 3, Duration.ofSeconds(30), Duration.ofDays(1));
+    }
+
+    private static OutboxEventEntity event(long id, String key, String payload) {
+        return event(id, key, payload, 0);
+    }
+
+    private static OutboxEventEntity event(long id, String key, String payload, int attempts) {
+        return OutboxEventEntity.builder()
+                .id(id)
+                .topic("user-events")
+                .messageKey(key)
+                .payload(payload.getBytes(StandardCharsets.UTF_8))
+                .createdDate(LocalDateTime.now())
+                .attempts(attempts)
+                .build();
+    }
+
+    // -------------------------------------------------------------
+    // TEST 1 — a key's next event is only sent after the previous was acknowledged
+    // -------------------------------------------------------------
+    @Test
+    void testRelay_SendsEventsOfOneKeyInSequence() {
+        when(outboxRepository.findUnsent(any())).thenReturn(List.of(
+                event(1, "1", "1-a"), event(2, "1", "1-b"), event(3, "2", "2-a")));
+
+        relay.relay();
+
+        // 2-a goes out with 1-a; 1-b waits for the next round
+        assertThat(sent).containsExactly("1-a", "2-a", "1-b");
+        verify(outboxRepository).markSent(eq(List.of(1L, 3L, 2L)), any());
+    }
+
+    // -------------------------------------------------------------
+    // TEST 2 — failure of a key => its later events unsent, retried in order
+    // -------------------------------------------------------------
+    @Test
+    void testRelay_FailureHoldsBackKeyAndRetriesInOrder() {
+        failing.put("1-a", new IllegalStateException("broker down"));
+        when(outboxRepository.findUnsent(any())).thenReturn(List.of(
+                event(1, "1", "1-a"), event(2, "1", "1-b"), event(3, "2", "2-a")));
+
+        relay.relay();
+
+        assertThat(sent).containsExactly("1-a", "2-a");
+        verify(outboxRepository).markSent(eq(List.of(3L)), any());
+
+        failing.clear();
+        sent.clear();
+        when(outboxRepository.findUnsent(any())).thenReturn(List.of(
+                event(1, "1", "1-a"), event(2, "1", "1-b")));
+
+        relay.relay();
+
+        assertThat(sent).containsExactly("1-a", "1-b");
+        verify(outboxRepository).markSent(eq(List.of(1L, 2L)), any());
+    }
+
+    // -------------------------------------------------------------
+    // TEST 3 — lease held by another replica => nothing relayed
+    // -------------------------------------------------------------
+    @Test
+    void testRelay_WithoutLease_SendsNothing() {
+        when(leaseRepository.acquire(eq(OutboxRelay.LEASE), anyString(), any(), any())).thenReturn(0);
+        when(leaseRepository.existsById(OutboxRelay.LEASE)).thenReturn(true);
+
+        relay.relay();
+
+        verify(outboxRepository, never()).findUnsent(any());
+        verify(outboxRepository, never()).markSent(anyList(), any());
+        assertThat(sent).isEmpty();
+    }
+
+    // -------------------------------------------------------------
+    // TEST 4 — non-retriable refusal => counted, then parked at the limit
+    // -------------------------------------------------------------
+    @Test
+    void testRelay_NonRetriableFailure_ParkedAtAttemptLimit() {
+        failing.put("1-a", new RecordTooLargeException("record is too large"));
+        failing.put("2-a", new RecordTooLargeException("record is too large"));
+        when(outboxRepository.findUnsent(any())).thenReturn(List.of(
+                event(1, "1", "1-a", 0), event(2, "2", "2-a", 2)));
+
+        relay.relay();
+
+        verify(outboxRepository).recordFailure(eq(1L), startsWith("RecordTooLargeException"), isNull());
+        verify(outboxRepository).recordFailure(eq(2L), startsWith("RecordTooLargeException"), notNull());
+        assertThat(meterRegistry.get("auth.outbox.parked").counter().count()).isEqualTo(1.0);
+    }
+
+    // -------------------------------------------------------------
+    // TEST 5 — retriable failure at the limit => still retried, not parked
+    // -------------------------------------------------------------
+    @Test
+    void testRelay_RetriableFailure_NeverParked() {
+        failing.put("1-a", new NotEnoughReplicasException("not enough replicas"));
+        failing.put("2-a", new IllegalStateException("Kafka producer has 10000 sends in flight"));
+        when(outboxRepository.findUnsent(any())).thenReturn(List.of(
+                event(1, "1", "1-a", 5), event(2, "2", "2-a", 5)));
+
+        relay.relay();
+
+        verify(outboxRepository).recordFailure(eq(1L), anyString(), isNull());
+        verify(outboxRepository).recordFailure(eq(2L), anyString(), isNull());
+        assertThat(meterRegistry.get("auth.outbox.parked").counter().count()).isZero();
+    }
+}
@@ -0,0 +1,103 @@
+package com.demo.authservice.kafka;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the Kafka spill journal.
+ *
+ * <p>Tests include:
+ * <ul>
+ *     <li>In-order replay across segment rotation</li>
+ *     <li>Recovery of undelivered messages after a restart</li>
+ *     <li>Size cap enforcement</li>
+ * </ul>
+ */
+public class SpillJournalTests {
+
+    @TempDir
+    Path directory;
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String text(SpillJournal.SpilledMessage message) {
+        return new String(message.value(), StandardCharsets.UTF_8);
+    }
+
+    private SpillJournal open(DataSize segmentSize, DataSize maxSize) throws Exception {
+        return new SpillJournal(directory.toString(), segmentSize, maxSize,
+                SpillJournal.FsyncPolicy.NEVER, new SimpleMeterRegistry());
+    }
+
+    // -------------------------------------------------------------
+    // TEST 1 — messages come back in order across segments
+    // -------------------------------------------------------------
+    @Test
+    void testAppendAndPeek_PreservesOrderAcrossSegments() throws Exception {
+        SpillJournal journal = open(DataSize.ofBytes(256), DataSize.ofMegabytes(1));
+
+        for (int i = 0; i < 20; i++) {
+            assertThat(journal.append("topic", "key-" + i, bytes("value-" + i))).isTrue();
+        }
+
+        List<SpillJournal.SpilledMessage> messages = journal.peek(100);
+        assertThat(messages).hasSize(20);
+        assertThat(text(messages.get(0))).isEqualTo("value-0");
+        assertThat(messages.get(19).key()).isEqualTo("key-19");
+        assertThat(messages.get(19).segment()).isGreaterThan(messages.get(0).segment());
+
+        journal.commit(messages.get(9), 10);
+        assertThat(journal.depth()).isEqualTo(10);
+        assertThat(text(journal.peek(1).get(0))).isEqualTo("value-10");
+    }
+
+    // -------------------------------------------------------------
+    // TEST 2 — a restarted journal resumes from its checkpoint
+    // -------------------------------------------------------------
+    @Test
+    void testRecovery_ResumesFromCheckpoint() throws Exception {
+        SpillJournal journal = open(DataSize.ofKilobytes(4), DataSize.ofMegabytes(1));
+        journal.append("topic", null, bytes("first"));
+        journal.append("topic", "k", bytes("second"));
+        journal.append("topic", "k", bytes("third"));
+        journal.commit(journal.peek(1).get(0), 1);
+        journal.close();
+
+        SpillJournal reopened = open(DataSize.ofKilobytes(4), DataSize.ofMegabytes(1));
+
+        assertThat(reopened.depth()).isEqualTo(2);
+        assertThat(reopened.peek(10)).extracting(SpillJournalTests::text)
+                .containsExactly("second", "third");
+
+        reopened.append("topic", "k", bytes("fourth"));
+        assertThat(reopened.peek(10)).extracting(SpillJournalTests::text)
+                .containsExactly("second", "third", "fourth");
+    }
+
+    // -------------------------------------------------------------
+    // TEST 3 — appends are refused once the size cap is reached
+    // -------------------------------------------------------------
+    @Test
+    void testSizeCap_RejectsWhenFull() throws Exception {
+        SpillJournal journal = open(DataSize.ofBytes(128), DataSize.ofBytes(256));
+
+        int accepted = 0;
+        while (journal.append("topic", "key", bytes("value-" + accepted))) {
+            accepted++;
+        }
+
+        assertThat(accepted).isPositive();
+        assertThat(journal.depth()).isEqualTo(accepted);
+        assertThat(journal.append("topic", "key", bytes("overflow"))).isFalse();
+    }
+}
@@ -0,0 +1,76 @@
+package com.demo.authservice.limit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the adaptive concurrency limit.
+ *
+ * <p>Tests include:
+ * <ul>
+ *     <li>Shrinking towards the CPU capacity when latency grows with concurrency</li>
+ *     <li>Growing while latency stays flat</li>
+ *     <li>Rejecting acquisitions over the limit</li>
+ * </ul>
+ */
+public class AdaptiveConcurrencyLimitTests {
+
+    private static final int WINDOW = 50;
+    private static final long BASE_RTT = 10_000_000L;
+
+    private static void window(AdaptiveConcurrencyLimit limit, long rttNanos, int inFlight) {
+        for (int i = 0; i < WINDOW; i++) {
+            limit.onSample(rttNanos, inFlight);
+        }
+    }
+
+    // -------------------------------------------------------------
+    // TEST 1 — CPU-bound work: the limit settles near the core count
+    // -------------------------------------------------------------
+    @Test
+    void testCpuBoundLatency_LimitShrinksTowardsCores() {
+        int cores = 4;
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(100, cores, 200, WINDOW, 1000);
+        window(limit, BASE_RTT, 1);
+
+        for (int w = 0; w < 150; w++) {
+            int concurrency = limit.limit();
+            // Beyond the core count every extra request just queues
+            long rtt = (long) (BASE_RTT * Math.max(1.0, concurrency / (double) cores));
+            window(limit, rtt, concurrency);
+        }
+
+        assertThat(limit.limit()).isBetween(cores, 5 * cores);
+    }
+
+    // -------------------------------------------------------------
+    // TEST 2 — flat latency under full use: the limit grows
+    // -------------------------------------------------------------
+    @Test
+    void testFlatLatency_LimitGrowsToMax() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(8, 4, 200, WINDOW, 1000);
+
+        for (int w = 0; w < 100; w++) {
+            window(limit, BASE_RTT, limit.limit());
+        }
+
+        assertThat(limit.limit()).isEqualTo(200);
+    }
+
+    // -------------------------------------------------------------
+    // TEST 3 — acquisitions beyond the limit are rejected
+    // -------------------------------------------------------------
+    @Test
+    void testTryAcquire_RejectsOverLimit() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 10, WINDOW, 1000);
+
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isFalse();
+        assertThat(limit.inFlight()).isEqualTo(2);
+
+        limit.release(BASE_RTT);
+        assertThat(limit.tryAcquire()).isTrue();
+    }
+}
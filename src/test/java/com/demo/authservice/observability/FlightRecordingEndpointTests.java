@@ -0,0 +1,145 @@
+package com.demo.authservice.observability;
+
+import com.demo.authservice.AbstractAuthServiceTests;
+import com.demo.authservice.entity.UserEntity;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration tests for the {@code /actuator/jfr} flight recording endpoint.
+ *
+ * <p>Tests include:
+ * <ul>
+ *     <li>Starting, dumping and stopping a recording is admin-only</li>
+ *     <li>A dumped recording contains the auth phase events of a login</li>
+ *     <li>Each dump has its own file, removed once it has been streamed</li>
+ * </ul>
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public class FlightRecordingEndpointTests extends AbstractAuthServiceTests {
+
+    private static final String JFR = "/actuator/jfr";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private FlightRecordingEndpoint endpoint;
+
+    @AfterEach
+    void stopRecording() {
+        endpoint.stop();
+    }
+
+    // -------------------------------------------------------------
+    // TEST 1 — recording endpoint => 401 without token, 403 for users
+    // -------------------------------------------------------------
+    @Test
+    void testEndpoint_AdminOnly() throws Exception {
+        String user = bearer(createUser("user@gmail.com", "ROLE_USER"));
+        String admin = bearer(createUser("admin@gmail.com", "ROLE_ADMIN"));
+
+        mockMvc.perform(post(JFR).contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post(JFR).header("Authorization", user)
+                        .contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get(JFR).header("Authorization", user))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(delete(JFR).header("Authorization", user))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(post(JFR).header("Authorization", admin)
+                        .contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete(JFR).header("Authorization", admin))
+                .andExpect(status().isNoContent());
+    }
+
+    // -------------------------------------------------------------
+    // TEST 2 — login during a recording => PasswordHash event in the dump
+    // -------------------------------------------------------------
+    @Test
+    void testDump_ContainsAuthPhaseEvents(@TempDir Path directory) throws Exception {
+        passwordHash = passwordEncoder.encode("password123");
+        UserEntity user = createUser("user@gmail.com", "ROLE_USER");
+        String admin = bearer(createUser("admin@gmail.com", "ROLE_ADMIN"));
+
+        mockMvc.perform(post(JFR).header("Authorization", admin)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"maxAge\": \"10m\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/users/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\": \"" + user.getEmail() + "\", \"password\": \"password123\"}"))
+                .andExpect(status().isOk());
+
+        byte[] dump = mockMvc.perform(get(JFR).header("Authorization", admin))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        Path file = Files.write(directory.resolve("auth.jfr"), dump);
+
+        List<RecordedEvent> passwordEvents = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals("com.demo.authservice.PasswordHash"))
+                .toList();
+        assertThat(passwordEvents).isNotEmpty();
+        assertThat(passwordEvents).anySatisfy(event -> {
+            assertThat(event.getString("phase")).isEqualTo(AuthPhase.PASSWORD_VERIFY.tag());
+            assertThat(event.getString("outcome")).isEqualTo("success");
+            assertThat(event.getEventType().getCategoryNames()).containsExactly("Auth Service");
+        });
+    }
+
+    // -------------------------------------------------------------
+    // TEST 3 — two dumps in a row => separate files, each deleted after streaming
+    // -------------------------------------------------------------
+    @Test
+    void testDump_PerRequestFile_DeletedAfterStreaming(@TempDir Path directory) throws Exception {
+        endpoint.start(null);
+
+        Resource first = endpoint.dump().getBody();
+        Resource second = endpoint.dump().getBody();
+        Path firstFile = first.getFile().toPath();
+        Path secondFile = second.getFile().toPath();
+        assertThat(firstFile).isNotEqualTo(secondFile);
+
+        // The first download is read only after the second dump was taken
+        Path copy = directory.resolve("first.jfr");
+        try (InputStream in = first.getInputStream()) {
+            Files.copy(in, copy);
+        }
+        assertThat(RecordingFile.readAllEvents(copy)).isNotEmpty();
+        assertThat(firstFile).doesNotExist();
+
+        try (InputStream in = second.getInputStream()) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        assertThat(secondFile).doesNotExist();
+    }
+}
@@ -0,0 +1,51 @@
+package com.demo.authservice.observability;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for phase timing.
+ *
+ * <p>Tests include:
+ * <ul>
+ *     <li>Recording a successful phase and returning its result</li>
+ *     <li>Recording a failed phase and rethrowing its exception</li>
+ * </ul>
+ */
+public class PhaseTrackerTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final PhaseTracker tracker = new PhaseTracker(registry, new AuthFlightEvents(false));
+
+    private long phaseCount(AuthPhase phase, String outcome) {
+        return registry.get("auth.phase").tag("phase", phase.tag()).tag("outcome", outcome).timer().count();
+    }
+
+    // -------------------------------------------------------------
+    // TEST 1 — successful phase is timed and its result returned
+    // -------------------------------------------------------------
+    @Test
+    void testTrack_Success_RecordsAndReturns() {
+        String result = tracker.track(AuthPhase.TOKEN_VERIFY, () -> "ok");
+
+        assertThat(result).isEqualTo("ok");
+        assertThat(phaseCount(AuthPhase.TOKEN_VERIFY, "success")).isEqualTo(1);
+        assertThat(phaseCount(AuthPhase.TOKEN_VERIFY, "failure")).isZero();
+    }
+
+    // -------------------------------------------------------------
+    // TEST 2 — failed phase is timed as a failure and rethrown
+    // -------------------------------------------------------------
+    @Test
+    void testTrack_Failure_RecordsAndRethrows() {
+        assertThatThrownBy(() -> tracker.track(AuthPhase.DB_WRITE, (Runnable) () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(phaseCount(AuthPhase.DB_WRITE, "failure")).isEqualTo(1);
+        assertThat(phaseCount(AuthPhase.DB_WRITE, "success")).isZero();
+    }
+}
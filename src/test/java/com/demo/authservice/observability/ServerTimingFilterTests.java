@@ -0,0 +1,72 @@
+package com.demo.authservice.observability;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the {@code Server-Timing} header.
+ *
+ * <p>Tests include:
+ * <ul>
+ *     <li>Listing the phases recorded during the request</li>
+ *     <li>Setting the header before a body is flushed</li>
+ *     <li>Not recording phases outside a request</li>
+ * </ul>
+ */
+public class ServerTimingFilterTests {
+
+    private final PhaseTracker tracker = new PhaseTracker(new SimpleMeterRegistry(), new AuthFlightEvents(false));
+    private final ServerTimingFilter filter = new ServerTimingFilter();
+
+    // -------------------------------------------------------------
+    // TEST 1 — recorded phases appear in the header, with the total
+    // -------------------------------------------------------------
+    @Test
+    void testPhasesDuringRequest_ListedInHeader() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/users/login"), response, (req, res) -> {
+            tracker.track(AuthPhase.DB_READ, () -> "user");
+            tracker.track(AuthPhase.DB_READ, () -> "role");
+            tracker.track(AuthPhase.PASSWORD_VERIFY, () -> true);
+        });
+
+        assertThat(response.getHeader(ServerTimingFilter.HEADER))
+                .contains("password_verify;dur=")
+                .contains("db_read;dur=")
+                .contains("desc=\"x2\"")
+                .containsPattern("total;dur=\\d+\\.\\d{3}$")
+                .doesNotContain("token_verify");
+    }
+
+    // -------------------------------------------------------------
+    // TEST 2 — header is set before the response is committed
+    // -------------------------------------------------------------
+    @Test
+    void testFlushedResponse_HeaderStillSet() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/users/me"), response, (req, res) -> {
+            tracker.track(AuthPhase.TOKEN_VERIFY, () -> "claims");
+            res.getWriter().write("{}");
+            res.flushBuffer();
+        });
+
+        assertThat(response.isCommitted()).isTrue();
+        assertThat(response.getHeader(ServerTimingFilter.HEADER)).contains("token_verify;dur=");
+    }
+
+    // -------------------------------------------------------------
+    // TEST 3 — no recorder is bound outside the filter
+    // -------------------------------------------------------------
+    @Test
+    void testOutsideRequest_NothingBound() {
+        tracker.track(AuthPhase.DB_READ, () -> "user");
+
+        assertThat(ServerTimingRecorder.current()).isNull();
+    }
+}
@@ -0,0 +1,135 @@
+package com.demo.authservice.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the off-heap principal table.
+ *
+ * <p>Tests include:
+ * <ul>
+ *     <li>Backward-shift deletion keeps the rest of a probe run reachable</li>
+ *     <li>Probe runs wrapping past the last slot, before and after deletion</li>
+ *     <li>Inserts refused at 75% load, replacements still accepted</li>
+ *     <li>An older version stamp never replaces a newer one</li>
+ * </ul>
+ */
+public class OffHeapPrincipalTableTests {
+
+    // 8 slots, at most 6 entries
+    private final OffHeapPrincipalTable table = new OffHeapPrincipalTable(8);
+
+    // Emails whose probe run starts at the given slot
+    private List<String> emailsWithHome(int slot, int count) {
+        int mask = table.capacity() - 1;
+        List<String> emails = new ArrayList<>();
+        for (int i = 0; emails.size() < count; i++) {
+            String email = "user" + i + "@gmail.com";
+            if (((int) OffHeapPrincipalTable.hashHi(email) & mask) == slot) {
+                emails.add(email);
+            }
+        }
+        return emails;
+    }
+
+    // -------------------------------------------------------------
+    // TEST 1 — deleting from a probe run shifts later entries back
+    // -------------------------------------------------------------
+    @Test
+    void testRemove_BackwardShift_KeepsProbeRunReachable() {
+        List<String> home2 = emailsWithHome(2, 2);
+        String home3 = emailsWithHome(3, 1).get(0);
+        String home5 = emailsWithHome(5, 1).get(0);
+
+        // slots 2, 3, 4 form one run; 5 is at home
+        table.put(home2.get(0), 1, 1, 0);
+        table.put(home2.get(1), 2, 1, 0);
+        table.put(home3, 3, 1, 0);
+        table.put(home5, 5, 1, 0);
+
+        assertThat(table.remove(home2.get(0))).isTrue();
+
+        assertThat(table.get(home2.get(0))).isNull();
+        assertThat(table.get(home2.get(1)).userId()).isEqualTo(2);
+        assertThat(table.get(home3).userId()).isEqualTo(3);
+        assertThat(table.get(home5).userId()).isEqualTo(5);
+        assertThat(table.size()).isEqualTo(3);
+
+        // Removing the shifted entries one by one leaves the others intact
+        assertThat(table.remove(home2.get(1))).isTrue();
+        assertThat(table.get(home3).userId()).isEqualTo(3);
+        assertThat(table.remove(home3)).isTrue();
+        assertThat(table.get(home5).userId()).isEqualTo(5);
+        assertThat(table.remove(home3)).isFalse();
+        assertThat(table.size()).isEqualTo(1);
+    }
+
+    // -------------------------------------------------------------
+    // TEST 2 — a probe run wrapping from the last slot to slot 0
+    // -------------------------------------------------------------
+    @Test
+    void testProbeRun_WrapsAroundTableEnd() {
+        List<String> home7 = emailsWithHome(7, 3);
+        String home0 = emailsWithHome(0, 1).get(0);
+
+        // slots 7, 0, 1, then the slot-0 entry probes on to 2
+        for (int i = 0; i < home7.size(); i++) {
+            assertThat(table.put(home7.get(i), i, 1, 0)).isTrue();
+        }
+        table.put(home0, 10, 1, 0);
+
+        assertThat(home7).allSatisfy(email -> assertThat(table.get(email)).isNotNull());
+        assertThat(table.get(home0).userId()).isEqualTo(10);
+
+        // Entries move back across the wrap, and the slot-0 entry towards its home
+        assertThat(table.remove(home7.get(0))).isTrue();
+
+        assertThat(table.get(home7.get(0))).isNull();
+        assertThat(table.get(home7.get(1)).userId()).isEqualTo(1);
+        assertThat(table.get(home7.get(2)).userId()).isEqualTo(2);
+        assertThat(table.get(home0).userId()).isEqualTo(10);
+
+        assertThat(table.remove(home7.get(2))).isTrue();
+        assertThat(table.get(home7.get(1)).userId()).isEqualTo(1);
+        assertThat(table.get(home0).userId()).isEqualTo(10);
+        assertThat(table.size()).isEqualTo(2);
+    }
+
+    // -------------------------------------------------------------
+    // TEST 3 — full table => new keys refused, existing keys updated
+    // -------------------------------------------------------------
+    @Test
+    void testPut_FullTable_RefusesNewKeys() {
+        for (int i = 0; i < 6; i++) {
+            assertThat(table.put("user" + i + "@gmail.com", i, 1, 0)).isTrue();
+        }
+
+        assertThat(table.put("extra@gmail.com", 99, 1, 0)).isFalse();
+        assertThat(table.get("extra@gmail.com")).isNull();
+        assertThat(table.size()).isEqualTo(6);
+
+        assertThat(table.put("user0@gmail.com", 0, 3, 1)).isTrue();
+        assertThat(table.get("user0@gmail.com").roleMask()).isEqualTo(3);
+
+        table.remove("user1@gmail.com");
+        assertThat(table.put("extra@gmail.com", 99, 1, 0)).isTrue();
+    }
+
+    // -------------------------------------------------------------
+    // TEST 4 — stale put => stored entry kept
+    // -------------------------------------------------------------
+    @Test
+    void testPut_OlderStamp_DoesNotReplaceNewer() {
+        table.put("jane@gmail.com", 1, 0b11, 200);
+
+        assertThat(table.put("jane@gmail.com", 1, 0b01, 100)).isFalse();
+        assertThat(table.get("jane@gmail.com")).isEqualTo(new OffHeapPrincipalTable.Entry(1, 0b11, 200));
+
+        assertThat(table.put("jane@gmail.com", 1, 0b01, 200)).isTrue();
+        assertThat(table.get("jane@gmail.com").roleMask()).isEqualTo(0b01);
+    }
+}
@@ -0,0 +1,150 @@
+package com.demo.authservice.security;
+
+import com.demo.authservice.entity.RoleEntity;
+import com.demo.authservice.entity.UserEntity;
+import com.demo.authservice.repository.RoleRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Set;
+import java.util.TimeZone;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the off-heap principal store.
+ *
+ * <p>Tests include:
+ * <ul>
+ *     <li>Stored principals decoded back to their role names</li>
+ *     <li>A stale put never replaces a newer principal</li>
+ *     <li>A put of the pre-change user after an invalidation is refused until the tombstone expires</li>
+ *     <li>Preloaded principals carry the same version stamp as the entity on a non-UTC host</li>
+ * </ul>
+ */
+public class PrincipalStoreTests {
+
+    private static final RoleEntity ROLE_USER = RoleEntity.builder().id(1L).name("ROLE_USER").build();
+    private static final RoleEntity ROLE_ADMIN = RoleEntity.builder().id(2L).name("ROLE_ADMIN").build();
+    private static final LocalDateTime MODIFIED = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    private final RoleRepository roleRepository = mock(RoleRepository.class);
+
+    private PrincipalStore store(Duration tombstoneTtl) {
+        when(roleRepository.findAll()).thenReturn(List.of(ROLE_USER, ROLE_ADMIN));
+        return new PrincipalStore(roleRepository, mock(DataSource.class), 1024, false, tombstoneTtl);
+    }
+
+    private static UserEntity user(LocalDateTime modified, RoleEntity... roles) {
+        UserEntity user = UserEntity.builder()
+                .id(7L)
+                .email("jane@gmail.com")
+                .roles(Set.of(roles))
+                .build();
+        user.setModifiedDate(modified);
+        return user;
+    }
+
+    // -------------------------------------------------------------
+    // TEST 1 — put then find returns the user's roles
+    // -------------------------------------------------------------
+    @Test
+    void testPut_FindDecodesRoles() {
+        PrincipalStore store = store(Duration.ofSeconds(30));
+
+        store.put(user(MODIFIED, ROLE_USER, ROLE_ADMIN));
+
+        AuthPrincipal principal = store.find("jane@gmail.com").orElseThrow();
+        assertThat(principal.userId()).isEqualTo(7L);
+        assertThat(principal.roleNames()).containsExactlyInAnyOrder("ROLE_USER", "ROLE_ADMIN");
+    }
+
+    // -------------------------------------------------------------
+    // TEST 2 — older version stamp => stored principal kept
+    // -------------------------------------------------------------
+    @Test
+    void testPut_StaleUser_DoesNotReplaceNewer() {
+        PrincipalStore store = store(Duration.ofSeconds(30));
+
+        store.put(user(MODIFIED, ROLE_USER));
+        store.put(user(MODIFIED.minusSeconds(1), ROLE_USER, ROLE_ADMIN));
+
+        assertThat(store.find("jane@gmail.com").orElseThrow().roleNames()).containsExactly("ROLE_USER");
+    }
+
+    // -------------------------------------------------------------
+    // TEST 3 — invalidation => revoked roles not restored by a stale lookup
+    // -------------------------------------------------------------
+    @Test
+    void testRemove_TombstoneRefusesPutsUntilExpired() {
+        PrincipalStore store = store(Duration.ofMillis(200));
+        UserEntity beforeChange = user(MODIFIED, ROLE_USER, ROLE_ADMIN);
+        store.put(beforeChange);
+
+        // Admin role revoked on another node; a lookup that read the old row finishes afterwards
+        store.remove("jane@gmail.com");
+        store.put(beforeChange);
+
+        assertThat(store.find("jane@gmail.com")).isEmpty();
+
+        UserEntity afterChange = user(MODIFIED.plusSeconds(1), ROLE_USER);
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> {
+            store.put(afterChange);
+            assertThat(store.find("jane@gmail.com")).isPresent();
+        });
+        assertThat(store.find("jane@gmail.com").orElseThrow().roleNames()).containsExactly("ROLE_USER");
+    }
+
+    // -------------------------------------------------------------
+    // TEST 4 — preload under a non-UTC default zone => same stamp, put accepted
+    // -------------------------------------------------------------
+    @Test
+    void testPreload_NonUtcDefaultZone_StampMatchesEntity() {
+        TimeZone defaultZone = TimeZone.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone("America/New_York"));
+        try {
+            DriverManagerDataSource dataSource =
+                    new DriverManagerDataSource("jdbc:h2:mem:principal-store-tests;DB_CLOSE_DELAY=-1", "sa", "");
+            JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+            jdbc.execute("CREATE TABLE users (id BIGINT PRIMARY KEY, email VARCHAR(255), modified_date TIMESTAMP(6))");
+            jdbc.execute("CREATE TABLE user_roles (user_id BIGINT, role_id BIGINT)");
+            // Written as Hibernate writes it with hibernate.jdbc.time_zone=UTC
+            Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+            jdbc.update(connection -> {
+                PreparedStatement insert = connection.prepareStatement(
+                        "INSERT INTO users (id, email, modified_date) VALUES (7, 'jane@gmail.com', ?)");
+                insert.setTimestamp(1, Timestamp.valueOf(MODIFIED), utc);
+                return insert;
+            });
+            jdbc.update("INSERT INTO user_roles (user_id, role_id) VALUES (7, 1)");
+
+            when(roleRepository.findAll()).thenReturn(List.of(ROLE_USER, ROLE_ADMIN));
+            PrincipalStore store = new PrincipalStore(roleRepository, dataSource, 1024, true, Duration.ofSeconds(30));
+            store.preload();
+
+            UserEntity sameVersion = user(MODIFIED, ROLE_USER);
+            assertThat(store.find("jane@gmail.com").orElseThrow().versionStamp())
+                    .isEqualTo(AuthPrincipal.stampOf(sameVersion.getModifiedDate()));
+
+            store.put(user(MODIFIED, ROLE_USER, ROLE_ADMIN));
+            assertThat(store.find("jane@gmail.com").orElseThrow().roleNames())
+                    .containsExactlyInAnyOrder("ROLE_USER", "ROLE_ADMIN");
+
+            jdbc.execute("DROP TABLE user_roles");
+            jdbc.execute("DROP TABLE users");
+        } finally {
+            TimeZone.setDefault(defaultZone);
+        }
+    }
+}
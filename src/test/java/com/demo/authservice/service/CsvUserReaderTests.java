@@ -0,0 +1,95 @@
+package com.demo.authservice.service;
+
+import com.demo.authservice.model.ImportRow;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for the import CSV reader.
+ *
+ * <p>Tests include:
+ * <ul>
+ *     <li>Quoted fields with commas, doubled quotes and line breaks</li>
+ *     <li>Blank lines neither returned nor counted, also when skipping to a checkpoint</li>
+ *     <li>Header columns in any order, optional columns missing, required column missing</li>
+ * </ul>
+ */
+public class CsvUserReaderTests {
+
+    private static CsvUserReader reader(String csv) throws Exception {
+        return new CsvUserReader(new StringReader(csv));
+    }
+
+    // -------------------------------------------------------------
+    // TEST 1 — quoted fields keep commas, quotes and line breaks
+    // -------------------------------------------------------------
+    @Test
+    void testNext_QuotedFields() throws Exception {
+        try (CsvUserReader reader = reader("username,email,password,roles\r\n"
+                + "\"Doe, Jane\",jane@gmail.com,\"pa\"\"ss,word\",\"ROLE_USER;ROLE_ADMIN\"\r\n"
+                + "\"multi\r\nline\",multi@gmail.com,\"line1\nline2\",\r\n")) {
+
+            List<ImportRow> rows = reader.next(10);
+
+            assertThat(rows).hasSize(2);
+            assertThat(rows.get(0).username()).isEqualTo("Doe, Jane");
+            assertThat(rows.get(0).password()).isEqualTo("pa\"ss,word");
+            assertThat(rows.get(0).roles()).isEqualTo("ROLE_USER;ROLE_ADMIN");
+            assertThat(rows.get(1).rowNumber()).isEqualTo(2);
+            assertThat(rows.get(1).username()).isEqualTo("multi\r\nline");
+            assertThat(rows.get(1).password()).isEqualTo("line1\nline2");
+            assertThat(rows.get(1).roles()).isNull();
+            assertThat(reader.next(10)).isEmpty();
+        }
+    }
+
+    // -------------------------------------------------------------
+    // TEST 2 — blank lines are skipped in next() and skip() alike
+    // -------------------------------------------------------------
+    @Test
+    void testSkip_IgnoresBlankLines() throws Exception {
+        String csv = "username,email,password\n"
+                + "\n"
+                + "one,one@gmail.com,secret1\n"
+                + "\r\n"
+                + "two,two@gmail.com,secret2\n"
+                + "\n"
+                + "three,three@gmail.com,secret3\n"
+                + "four,four@gmail.com,secret4";
+
+        try (CsvUserReader reader = reader(csv)) {
+            List<ImportRow> first = reader.next(2);
+            assertThat(first).extracting(ImportRow::username).containsExactly("one", "two");
+        }
+
+        try (CsvUserReader reader = reader(csv)) {
+            reader.skip(2);
+            List<ImportRow> rest = reader.next(10);
+            assertThat(rest).extracting(ImportRow::username).containsExactly("three", "four");
+            assertThat(rest).extracting(ImportRow::rowNumber).containsExactly(3L, 4L);
+        }
+    }
+
+    // -------------------------------------------------------------
+    // TEST 3 — header order is free; required columns are checked
+    // -------------------------------------------------------------
+    @Test
+    void testHeader_ColumnsByName() throws Exception {
+        try (CsvUserReader reader = reader("Password,EMAIL,username,password_format\nsecret1,one@gmail.com,one,md5\n")) {
+            ImportRow row = reader.next(1).get(0);
+            assertThat(row.username()).isEqualTo("one");
+            assertThat(row.email()).isEqualTo("one@gmail.com");
+            assertThat(row.password()).isEqualTo("secret1");
+            assertThat(row.passwordFormat()).isEqualTo("md5");
+        }
+
+        assertThatThrownBy(() -> reader("username,email\none,one@gmail.com\n"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("password");
+    }
+}
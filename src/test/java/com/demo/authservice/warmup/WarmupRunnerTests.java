@@ -0,0 +1,100 @@
+package com.demo.authservice.warmup;
+
+import com.demo.authservice.AbstractAuthServiceTests;
+import com.demo.authservice.cache.CacheNames;
+import com.demo.authservice.entity.UserEntity;
+import com.demo.authservice.model.UserResponse;
+import com.demo.authservice.observability.AuthPhase;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the warm-up runner.
+ *
+ * <p>Tests include:
+ * <ul>
+ *     <li>Recently active principals are loaded into the currentUser cache, inactive ones are not</li>
+ *     <li>The node accepts traffic once warm-up has run</li>
+ *     <li>Warm-up tokens are not counted in the auth.phase timers</li>
+ * </ul>
+ */
+@SpringBootTest
+public class WarmupRunnerTests extends AbstractAuthServiceTests {
+
+    @Autowired
+    private WarmupRunner warmupRunner;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ApplicationAvailability availability;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void clearCache() {
+        cacheManager.getCache(CacheNames.CURRENT_USER).clear();
+    }
+
+    private UserEntity createUserWithLastLogin(String email, ZonedDateTime lastLogin) {
+        UserEntity user = newUser(email, "ROLE_USER");
+        user.setLastLogin(lastLogin);
+        return userRepository.save(user);
+    }
+
+    // -------------------------------------------------------------
+    // TEST 1 — recently active principals are cached, inactive ones are not
+    // -------------------------------------------------------------
+    @Test
+    void testRun_CachesRecentlyActivePrincipals() {
+        createUserWithLastLogin("active@gmail.com", ZonedDateTime.now(ZoneOffset.UTC));
+        createUserWithLastLogin("never@gmail.com", null);
+
+        warmupRunner.run(new DefaultApplicationArguments());
+
+        Cache currentUsers = cacheManager.getCache(CacheNames.CURRENT_USER);
+        UserResponse active = currentUsers.get("active@gmail.com", UserResponse.class);
+        assertThat(active).isNotNull();
+        assertThat(active.getRoles()).containsExactly("ROLE_USER");
+        assertThat(currentUsers.get("never@gmail.com")).isNull();
+    }
+
+    // -------------------------------------------------------------
+    // TEST 2 — readiness is reported once the runner has completed
+    // -------------------------------------------------------------
+    @Test
+    void testStartup_AcceptsTrafficAfterWarmup() {
+        assertThat(availability.getReadinessState()).isEqualTo(ReadinessState.ACCEPTING_TRAFFIC);
+    }
+
+    // -------------------------------------------------------------
+    // TEST 3 — warm-up traffic => no auth.phase samples
+    // -------------------------------------------------------------
+    @Test
+    void testRun_TokenPhasesNotTimed() {
+        long before = phaseCount(AuthPhase.TOKEN_ISSUE);
+
+        warmupRunner.run(new DefaultApplicationArguments());
+
+        assertThat(phaseCount(AuthPhase.TOKEN_ISSUE)).isEqualTo(before);
+    }
+
+    private long phaseCount(AuthPhase phase) {
+        return meterRegistry.get("auth.phase").tag("phase", phase.tag()).tag("outcome", "success").timer().count();
+    }
+}